@@ -0,0 +1,91 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.JpashopApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 회원 일괄 등록(MemberImportService) 처리량
+ * 웹 서버 없이 애플리케이션 컨텍스트만 띄우고, 메모리 H2에 회원 rows명을 batchSize별로 등록해서 rows/s를 출력한다.
+ *
+ * ./gradlew memberImportBenchmark -PbenchmarkArgs="--rows=100000 --batch-sizes=100,1000,5000"
+ *
+ * --url을 주면 스키마가 있는 그 DB에 넣는다. (예: --url=jdbc:h2:tcp://localhost/~/jpashop)
+ * 이때는 테이블을 다시 만들지 않고(ddl-auto: none), 넣은 회원도 지우지 않는다.
+ */
+public class MemberImportBenchmark {
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        String url = options.get("url");
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int[] batchSizes = Arrays.stream(options.getOrDefault("batch-sizes", "100,1000,5000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                // application.yml보다 앞서도록 커맨드라인 인자로 넘긴다.
+                .run("--spring.datasource.url=" + (url != null ? url : "jdbc:h2:mem:member-import-benchmark"),
+                        "--spring.jpa.hibernate.ddl-auto=" + (url != null ? "none" : "create"),
+                        "--jpashop.init-db.mode=none",
+                        "--jpashop.outbox.relay-interval-millis=0",
+                        "--logging.level.org.hibernate.SQL=info",
+                        "--logging.level.jpabook.jpashop.service.MemberImportService=warn",
+                        "--decorator.datasource.p6spy.enable-logging=false")) {
+            MemberImportService memberImportService = context.getBean(MemberImportService.class);
+
+            // 첫 번째는 JIT, 커넥션 풀 준비용
+            memberImportService.importMembers(new GeneratedRows("warmup", Math.min(rows, 10_000)), 1000);
+
+            System.out.printf("member import: %,d rows%n", rows);
+            System.out.printf("%-12s %12s %12s%n", "batchSize", "elapsed ms", "rows/s");
+            for (int batchSize : batchSizes) {
+                MemberImportResult result = memberImportService.importMembers(new GeneratedRows("bench" + batchSize, rows), batchSize);
+                if (result.getImported() != rows) {
+                    throw new IllegalStateException("등록되지 않은 회원이 있습니다. " + result.getFailed() + "건");
+                }
+                System.out.printf("%-12d %,12d %,12d%n", batchSize, result.getElapsedMillis(), result.getRowsPerSecond());
+            }
+        }
+    }
+
+    // 입력 파일처럼 한 줄씩 만든다. (한 번에 메모리에 올리지 않는다)
+    private static class GeneratedRows implements Iterator<MemberImportRow> {
+
+        private final String prefix;
+        private final int count;
+        private int line;
+
+        GeneratedRows(String prefix, int count) {
+            this.prefix = prefix;
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return line < count;
+        }
+
+        @Override
+        public MemberImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            line++;
+            return MemberImportRow.of(line, prefix + "-" + line, "서울", "강가", "123-123");
+        }
+    }
+}
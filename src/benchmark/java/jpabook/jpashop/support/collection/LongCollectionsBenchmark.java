@@ -0,0 +1,78 @@
+package jpabook.jpashop.support.collection;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * OrderQueryRepository.findAllByDto_optimization의 주문 상품 매칭 할당량 비교
+ * 이전: List<Long> orderIds + groupingBy HashMap<Long, List<...>>
+ * 이후: LongList orderIds + LongObjectMap<주문>에 바로 붙이기
+ *
+ * ./gradlew allocationBenchmark -PbenchmarkArgs="--orders=100000 --rounds=5"
+ *
+ * 현재 스레드가 할당한 바이트(com.sun.management.ThreadMXBean)를 잰다. JVM마다 값이 다르므로 출력만 한다.
+ */
+public class LongCollectionsBenchmark {
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int orders = Integer.parseInt(options.getOrDefault("orders", "100000"));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "5"));
+
+        // 주문 하나에 상품 두 개
+        long[] itemOrderIds = new long[orders * 2];
+        List<Object> items = new ArrayList<>(itemOrderIds.length);
+        for (int i = 0; i < itemOrderIds.length; i++) {
+            itemOrderIds[i] = 1_000_000L + i / 2;
+            items.add(new Object());
+        }
+
+        IntSupplier boxed = () -> {
+            List<Long> orderIds = LongStream.range(0, orders).map(i -> 1_000_000L + i).boxed().collect(Collectors.toList());
+            Map<Long, List<Object>> byOrder = new HashMap<>();
+            for (int i = 0; i < itemOrderIds.length; i++) {
+                byOrder.computeIfAbsent(itemOrderIds[i], k -> new ArrayList<>()).add(items.get(i));
+            }
+            return orderIds.size() + byOrder.size();
+        };
+        IntSupplier primitive = () -> {
+            LongList orderIds = new LongList(orders);
+            LongObjectMap<List<Object>> byOrder = new LongObjectMap<>(orders);
+            for (int i = 0; i < orders; i++) {
+                orderIds.add(1_000_000L + i);
+                byOrder.put(1_000_000L + i, new ArrayList<>(2));
+            }
+            for (int i = 0; i < itemOrderIds.length; i++) {
+                byOrder.get(itemOrderIds[i]).add(items.get(i));
+            }
+            return orderIds.size() + byOrder.size();
+        };
+
+        System.out.printf("order item matching: %,d orders, %,d items%n", orders, itemOrderIds.length);
+        System.out.printf("%-10s %16s %16s%n", "round", "boxed bytes", "primitive bytes");
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("%-10d %,16d %,16d%n", round, allocatedBytes(boxed), allocatedBytes(primitive));
+        }
+    }
+
+    private static long allocatedBytes(IntSupplier task) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        if (task.getAsInt() <= 0) {
+            throw new IllegalStateException("결과가 비었습니다.");
+        }
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
@@ -3,6 +3,10 @@ package jpabook.jpashop;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Book;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,18 +22,54 @@ import javax.persistence.EntityManager;
  * * userB
  *   * SPRING1 BOOK
  *   * SPRING2 BOOK
+ *
+ * jpashop.init-db.mode
+ * - startup(기본): 시작할 때 넣는다. 다 넣을 때까지 요청을 받지 않는다.
+ * - background: 요청을 받을 준비가 된 뒤(ApplicationReadyEvent) 별도 스레드에서 넣는다.
+ * - none: 넣지 않는다. (prod)
+ * 회원이 이미 있으면 (ddl-auto가 create가 아니라 데이터가 남아 있으면) 넣지 않는다.
  */
-
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class InitDb {
 
+    public enum Mode {
+        STARTUP, BACKGROUND, NONE
+    }
+
     private final InitService initService;
+    private final Mode mode;
+
+    public InitDb(InitService initService, @Value("${jpashop.init-db.mode:startup}") Mode mode) {
+        this.initService = initService;
+        this.mode = mode;
+    }
 
     @PostConstruct
     public void init() {
+        if (mode == Mode.STARTUP) {
+            seed();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (mode == Mode.BACKGROUND) {
+            Thread thread = new Thread(this::seed, "init-db");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void seed() {
+        long start = System.currentTimeMillis();
+        if (initService.hasMembers()) {
+            log.info("InitDb skipped: members already exist");
+            return;
+        }
         initService.dbInit1();
         initService.dbInit2();
+        log.info("InitDb seeded in {}ms ({})", System.currentTimeMillis() - start, mode);
     }
 
     @Component
@@ -39,6 +79,14 @@ public class InitDb {
 
         private final EntityManager em;
 
+        @Transactional(readOnly = true)
+        public boolean hasMembers() {
+            return !em.createQuery("select m.id from Member m", Long.class)
+                    .setMaxResults(1)
+                    .getResultList()
+                    .isEmpty();
+        }
+
         public void dbInit1() {
             Member member = createMember("userA", "서울", "1", "1111");
             em.persist(member);
@@ -0,0 +1,127 @@
+package jpabook.jpashop.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * API 요청 수락 제어.
+ *
+ * 1. 클라이언트별 토큰 버킷: 엔드포인트 비용(weight)만큼 토큰을 쓰고, 모자라면 429 (Retry-After)
+ *    엔티티 그래프 전체를 주는 V1, N+1이 나는 V4 같은 엔드포인트는 비용을 크게 잡는다.
+ * 2. 비싼 엔드포인트(expensivePaths)는 전체 동시 실행 수를 maxConcurrent로 제한한다.
+ *    자리가 없으면 maxQueue명까지 queueTimeoutMillis 동안 기다리고, 그 이상이거나 시간이 지나면 503
+ *    maxConcurrent를 커넥션 풀보다 작게 잡아서 비싼 요청이 몰려도 v3.1 같은 싼 요청이 쓸 커넥션이 남게 한다.
+ * OSIV보다 먼저 실행되므로 거절된 요청은 영속성 컨텍스트나 커넥션을 잡지 않는다.
+ *
+ * 클라이언트는 인증된 사용자면 사용자 이름, 아니면 요청 IP로 구분한다.
+ * 클라이언트가 보내는 헤더(clientHeader)는 바꿔 보내면 버킷을 새로 받을 수 있으므로 로그에만 남긴다.
+ * 프록시 뒤에서는 server.forward-headers-strategy를 켜야 프록시가 아닌 원래 요청 IP로 구분된다.
+ */
+@Slf4j
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".PERMIT";
+
+    private final AdmissionProperties properties;
+    private final Set<String> expensivePaths;
+    private final Semaphore expensivePermits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionProperties properties) {
+        this.properties = properties;
+        this.expensivePaths = new HashSet<>(properties.getExpensivePaths());
+        this.expensivePermits = new Semaphore(properties.getMaxConcurrent(), true);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        int weight = properties.getWeights().getOrDefault(pattern, properties.getDefaultWeight());
+        String clientKey = clientKey(request);
+        long waitMillis = bucket(clientKey, now).tryConsume(weight, now);
+        if (waitMillis > 0) {
+            log.debug("admission: throttle {} for {} ({}: {})",
+                    pattern, clientKey, properties.getClientHeader(), request.getHeader(properties.getClientHeader()));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMillis + 999) / 1000)));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+            return false;
+        }
+
+        if (!expensivePaths.contains(pattern)) {
+            return true;
+        }
+        if (!acquireExpensivePermit()) {
+            log.debug("admission: shed {} (queued {})", pattern, queued.get());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            expensivePermits.release();
+        }
+    }
+
+    int availableExpensivePermits() {
+        return expensivePermits.availablePermits();
+    }
+
+    private boolean acquireExpensivePermit() throws InterruptedException {
+        if (expensivePermits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > properties.getMaxQueue()) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return expensivePermits.tryAcquire(properties.getQueueTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private TokenBucket bucket(String clientKey, long now) {
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxClients()) {
+            // 가득 찬 버킷은 한동안 요청이 없던 클라이언트이므로 지워도 결과가 같다.
+            buckets.values().removeIf(b -> b.isFull(now));
+        }
+        return buckets.computeIfAbsent(clientKey,
+                key -> new TokenBucket(properties.getBucketCapacity(), properties.getRefillPerSecond(), now));
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : request.getRemoteAddr();
+    }
+}
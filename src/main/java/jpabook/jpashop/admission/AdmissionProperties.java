@@ -0,0 +1,36 @@
+package jpabook.jpashop.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.admission")
+public class AdmissionProperties {
+
+    private boolean enabled;
+
+    // 클라이언트가 보내는 이름 헤더. 위조할 수 있으므로 로그에만 남기고 클라이언트 구분에는 쓰지 않는다.
+    private String clientHeader = "X-Client-Id";
+
+    // 클라이언트마다 토큰 버킷 하나. 요청마다 엔드포인트 비용(weight)만큼 토큰을 쓴다.
+    private int bucketCapacity = 200;
+    private double refillPerSecond = 100;
+    private int maxClients = 10_000;
+
+    // 엔드포인트(핸들러 매핑 패턴)별 비용. 없으면 defaultWeight
+    private int defaultWeight = 1;
+    private Map<String, Integer> weights = new HashMap<>();
+
+    // 비싼 엔드포인트 전체의 동시 실행 수 제한
+    private List<String> expensivePaths = new ArrayList<>();
+    private int maxConcurrent = 4;
+    private int maxQueue = 16;
+    private long queueTimeoutMillis = 500;
+}
@@ -0,0 +1,45 @@
+package jpabook.jpashop.admission;
+
+/**
+ * 토큰 버킷. 초당 refillPerSecond개씩 capacity까지 채워진다.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerMillis;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.refillPerMillis = refillPerSecond / 1000;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * weight만큼 토큰을 쓴다.
+     * @return 0이면 통과, 아니면 토큰이 찰 때까지 기다려야 하는 시간(ms)
+     */
+    synchronized long tryConsume(int weight, long now) {
+        refill(now);
+        double needed = Math.min(weight, capacity);
+        if (tokens >= needed) {
+            tokens -= needed;
+            return 0;
+        }
+        return (long) Math.ceil((needed - tokens) / refillPerMillis);
+    }
+
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerMillis);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.batchfetch.BatchFetchAdvisor;
+import jpabook.jpashop.batchfetch.BatchFetchAdvisor.Reason;
+import jpabook.jpashop.batchfetch.BatchFetchAdvisor.Recommendation;
+import jpabook.jpashop.batchfetch.BatchFetchAssociation;
+import jpabook.jpashop.batchfetch.BatchFetchProfile;
+import jpabook.jpashop.batchfetch.BatchFetchProperties;
+import jpabook.jpashop.batchfetch.BatchFetchStats;
+import jpabook.jpashop.batchfetch.BatchFetchStats.Snapshot;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지연 로딩 배치 페치 기록과 추천 배치 크기. (BatchFetchConfig 참조)
+ * 추천을 프로필 파일로 저장해 두고 jpashop.batch-fetch.apply-profile=true 로 다시 시작하면 적용된다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "jpashop.batch-fetch", name = "enabled", havingValue = "true")
+public class BatchFetchApiController {
+
+    private final BatchFetchStats batchFetchStats;
+    private final BatchFetchAdvisor batchFetchAdvisor;
+    private final BatchFetchProperties batchFetchProperties;
+
+    @GetMapping("/api/batch-fetch")
+    public Result<List<AssociationDto>> associations() {
+        List<AssociationDto> collect = new ArrayList<>();
+        for (BatchFetchAssociation association : BatchFetchAssociation.values()) {
+            Snapshot snapshot = batchFetchStats.get(association);
+            collect.add(new AssociationDto(association.getKey(), snapshot, batchFetchAdvisor.recommend(snapshot)));
+        }
+        return new Result<>(collect.size(), collect);
+    }
+
+    @DeleteMapping("/api/batch-fetch/stats")
+    public void reset() {
+        batchFetchStats.reset();
+    }
+
+    // 지금 추천을 프로필 파일에 쓴다.
+    @PostMapping("/api/batch-fetch/profile")
+    public ProfileResponse saveProfile() {
+        Map<BatchFetchAssociation, Integer> sizes = new EnumMap<>(BatchFetchAssociation.class);
+        for (BatchFetchAssociation association : BatchFetchAssociation.values()) {
+            sizes.put(association, batchFetchAdvisor.recommend(batchFetchStats.get(association)).getBatchSize());
+        }
+        Path path = Paths.get(batchFetchProperties.getProfile());
+        BatchFetchProfile.save(path, sizes);
+
+        Map<String, Integer> saved = new LinkedHashMap<>();
+        sizes.forEach((association, size) -> saved.put(association.getKey(), size));
+        return new ProfileResponse(path.toAbsolutePath().toString(), batchFetchProperties.isApplyProfile(), saved);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Result<T> {
+        private int count;
+        private T data;
+    }
+
+    @Data
+    static class AssociationDto {
+        private String association;
+        private int batchSize;
+        private long roundTrips;
+        private long loaded;
+        private double averagePerTrip;
+        private double fillRatio;
+        private int recommendedBatchSize;
+        private Reason reason;
+
+        AssociationDto(String association, Snapshot snapshot, Recommendation recommendation) {
+            this.association = association;
+            this.batchSize = snapshot.getBatchSize();
+            this.roundTrips = snapshot.getRoundTrips();
+            this.loaded = snapshot.getLoaded();
+            this.averagePerTrip = snapshot.getAveragePerTrip();
+            this.fillRatio = snapshot.getFillRatio();
+            this.recommendedBatchSize = recommendation.getBatchSize();
+            this.reason = recommendation.getReason();
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class ProfileResponse {
+        private String path;
+        private boolean applied;   // false면 apply-profile을 켜야 다음 시작 때 적용된다.
+        private Map<String, Integer> batchSizes;
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.repository.ItemCatalogDto;
+import jpabook.jpashop.service.ItemCatalogService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+public class ItemApiController {
+
+    private static final int MAX_SEARCH_LIMIT = 50;
+
+    private final ItemCatalogService itemCatalogService;
+
+    // 주문 화면의 상품 검색(typeahead)용
+    // DB를 거치지 않고 인메모리 카탈로그의 정렬된 이름 인덱스에서 찾는다. (ItemCatalogSnapshot.searchByNamePrefix)
+    @GetMapping("/api/items/search")
+    public Result<List<ItemSearchDto>> searchItems(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        List<ItemSearchDto> collect = itemCatalogService.searchByName(prefix, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT)).stream()
+                .map(ItemSearchDto::new)
+                .collect(Collectors.toList());
+
+        return new Result<>(collect.size(), collect);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Result<T> {
+        private int count;
+        private T data;
+    }
+
+    @Data
+    static class ItemSearchDto {
+        private Long id;
+        private String name;
+        private int price;
+        private int stockQuantity;
+
+        public ItemSearchDto(ItemCatalogDto item) {
+            id = item.getId();
+            name = item.getName();
+            price = item.getPrice();
+            stockQuantity = item.getStockQuantity();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.loadtest.LoadTestDataGenerator;
+import jpabook.jpashop.loadtest.LoadTestDataRepository;
+import jpabook.jpashop.loadtest.LoadTestDataResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 부하 테스트 데이터 생성과, ScenarioRunner가 요청에 넣을 회원, 상품 id. (LoadTestConfig 참조)
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "jpashop.load-test", name = "enabled", havingValue = "true")
+public class LoadTestApiController {
+
+    private static final int MAX_IDS = 1_000_000;
+
+    private final LoadTestDataGenerator loadTestDataGenerator;
+    private final LoadTestDataRepository loadTestDataRepository;
+
+    // jpashop.load-test 설정 크기만큼 데이터를 더 만든다. (다 만들 때까지 응답하지 않는다)
+    @PostMapping("/api/load-test/data")
+    public LoadTestDataResult generate() {
+        return loadTestDataGenerator.generate();
+    }
+
+    // 최근에 만든 회원, 상품 id. 시퀀스를 테이블끼리 나눠 쓰므로 범위(min ~ max)로는 줄 수 없다.
+    @GetMapping("/api/load-test/ids")
+    public IdsResponse ids(
+            @RequestParam(value = "members", defaultValue = "10000") int members,
+            @RequestParam(value = "items", defaultValue = "100000") int items) {
+        return new IdsResponse(
+                loadTestDataRepository.findRecentMemberIds(Math.min(Math.max(members, 1), MAX_IDS)),
+                loadTestDataRepository.findRecentItemIds(Math.min(Math.max(items, 1), MAX_IDS)));
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class IdsResponse {
+        private List<Long> members;
+        private List<Long> items;
+    }
+}
@@ -1,14 +1,27 @@
 package jpabook.jpashop.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberListDto;
+import jpabook.jpashop.service.AggregateVersions;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
+import jpabook.jpashop.service.MemberImportResult;
+import jpabook.jpashop.service.MemberImportService;
 import jpabook.jpashop.service.MemberService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,7 +29,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MemberApiController {
 
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_IMPORT_BATCH_SIZE = 10_000;
+
     private final MemberService memberService;
+    private final MemberImportService memberImportService;
+    private final ObjectMapper objectMapper;
+    private final AggregateVersions aggregateVersions;
 
     // 엔티티를 직접 외부에 노출하고 있다.
     // 엔티티가 변경되면 API spec이 변경된다는 문제점이 있다.
@@ -31,8 +51,12 @@ public class MemberApiController {
     // collection 등의 값을 하나의 타입으로 감싸서(Result) 반환 --> Result에 추가적인 필드를 추가하기 쉬워졌다.
     // Member 대신 MemberDto를 반환함으로써 외부로의 엔티티 노출을 막았다.
     // MemberDto는 노출할 프로퍼티만 노출한다.
+    // 회원이 바뀌지 않았으면(If-None-Match가 ETag와 같으면) 조회하지 않고 304로 응답한다. (AggregateVersions 참조)
     @GetMapping("/api/v2/members")
-    public Result<List<MemberDto>> membersV2() {
+    public Result<List<MemberDto>> membersV2(WebRequest request) {
+        if (request.checkNotModified(aggregateVersions.etag(Aggregate.MEMBER))) {
+            return null;
+        }
         List<Member> findMembers = memberService.findMembers();
 
         List<MemberDto> collect = findMembers.stream()
@@ -42,6 +66,79 @@ public class MemberApiController {
         return new Result<>(collect.size(), collect);
     }
 
+    // 회원 목록 페이징 + 정렬
+    // 1. keyset 페이징: offset 대신 이전 페이지의 마지막 값(next)을 after로 넘긴다. 페이지가 뒤로 가도 느려지지 않는다.
+    // 2. DTO 프로젝션: Member 엔티티(orders 컬렉션 포함)를 로딩하지 않고 필요한 컬럼만 조회한다.
+    // 3. total은 매 페이지 count(*) 하지 않고 캐시한 근사치를 쓴다. (MemberCountCache)
+    @GetMapping("/api/v3/members")
+    public PageResult<List<MemberListDto>> membersV3(
+            @RequestParam(value = "sort", defaultValue = "ID") MemberSort sort,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // 다음 페이지가 있는지 알기 위해 한 명 더 읽는다.
+        List<MemberListDto> members = sort == MemberSort.NAME
+                ? memberService.findMembersAfterName(after, pageSize + 1)
+                : memberService.findMembersAfterId(parseIdCursor(after), pageSize + 1);
+
+        String next = null;
+        if (members.size() > pageSize) {
+            members = members.subList(0, pageSize);
+            MemberListDto last = members.get(pageSize - 1);
+            next = sort == MemberSort.NAME ? last.getName() : String.valueOf(last.getId());
+        }
+
+        return new PageResult<>(members.size(), memberService.countMembers(), next, members);
+    }
+
+    // ID 정렬의 after는 이전 페이지가 준 회원 id여야 한다.
+    private static Long parseIdCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "after는 회원 id여야 합니다: " + after);
+        }
+    }
+
+    enum MemberSort {
+        ID, NAME
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class PageResult<T> {
+        private int count;
+        private long total;
+        private String next;
+        private T data;
+    }
+
+    // 주문 화면의 회원 검색(typeahead)용
+    // 전체 회원을 select box에 그리지 않고 입력한 prefix로 시작하는 회원만 limit명 조회한다.
+    @GetMapping("/api/members/search")
+    public Result<List<MemberSearchDto>> searchMembers(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        List<MemberSearchDto> collect = memberService.searchByName(prefix, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT)).stream()
+                .map(member -> new MemberSearchDto(member.getId(), member.getName()))
+                .collect(Collectors.toList());
+
+        return new Result<>(collect.size(), collect);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class MemberSearchDto {
+        private Long id;
+        private String name;
+    }
+
     @Data
     @AllArgsConstructor
     static class Result<T> {
@@ -84,7 +181,7 @@ public class MemberApiController {
         return new CreateMemberResponse(id);
     }
 
-    // update 시 dirty checking 이용
+    // update 시 dirty checking 대신 update 쿼리 한 번 이용 (MemberService.update)
     // 받는 값, 리턴하는 값을 명확한 타입으로 정의
     // command and query 분리 (유지보수성 증대)
     // PUT은 멱등성을 만족해야 한다. 즉 여러번 수행해도 결과는 동일해야 한다.
@@ -94,10 +191,34 @@ public class MemberApiController {
             @RequestBody @Valid UpdateMemberRequest request) {
 
         // command
+        // update 쿼리 한 번으로 바꾸고, 바뀐 상태는 (id, 요청한 name) 그대로이므로 다시 조회(query)하지 않는다.
         memberService.update(id, request.getName());
-        // query
-        Member findMember = memberService.findOne(id);
-        return new UpdateMemberResponse(findMember.getId(), findMember.getName());
+        return new UpdateMemberResponse(id, request.getName());
+    }
+
+    // 회원 일괄 등록 (CSV 또는 NDJSON)
+    // 본문을 한 줄씩 읽으면서 batchSize명씩 묶어 중복 검사(in 쿼리 한 번) + JDBC batch insert 한다.
+    // 잘못된 줄, 중복 이름은 건너뛰고 줄 번호와 함께 결과에 담는다.
+    @PostMapping(value = "/api/v2/members/import", consumes = "text/csv")
+    public MemberImportResult importMembersCsv(
+            InputStream body,
+            @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize) {
+        return memberImportService.importMembers(MemberImportReader.csv(reader(body)), importBatchSize(batchSize));
+    }
+
+    @PostMapping(value = "/api/v2/members/import", consumes = "application/x-ndjson")
+    public MemberImportResult importMembersNdjson(
+            InputStream body,
+            @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize) {
+        return memberImportService.importMembers(MemberImportReader.ndjson(reader(body), objectMapper), importBatchSize(batchSize));
+    }
+
+    private BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private int importBatchSize(int batchSize) {
+        return Math.min(Math.max(batchSize, 1), MAX_IMPORT_BATCH_SIZE);
     }
 
     @Data
@@ -0,0 +1,140 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.service.MemberImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 회원 일괄 등록 요청 본문을 한 줄씩 읽어서 MemberImportRow로 바꾼다. (본문 전체를 메모리에 올리지 않는다)
+ *
+ * CSV: name,city,street,zipcode (첫 줄이 name으로 시작하면 헤더로 보고 건너뛴다)
+ * NDJSON: 한 줄에 {"name": ..., "city": ..., "street": ..., "zipcode": ...} 하나
+ */
+abstract class MemberImportReader implements Iterator<MemberImportRow> {
+
+    private final BufferedReader reader;
+    private long lineNumber;
+    private MemberImportRow next;
+
+    MemberImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static MemberImportReader csv(BufferedReader reader) {
+        return new MemberImportReader(reader) {
+            @Override
+            MemberImportRow parse(long line, String text) {
+                List<String> values = splitCsv(text);
+                if (values == null) {
+                    return MemberImportRow.invalid(line, "따옴표가 닫히지 않았습니다.");
+                }
+                if (line == 1 && "name".equalsIgnoreCase(values.get(0))) {
+                    return null;
+                }
+                return MemberImportRow.of(line, value(values, 0), value(values, 1), value(values, 2), value(values, 3));
+            }
+        };
+    }
+
+    static MemberImportReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new MemberImportReader(reader) {
+            @Override
+            MemberImportRow parse(long line, String text) {
+                try {
+                    JsonNode node = objectMapper.readTree(text);
+                    if (!node.isObject()) {
+                        return MemberImportRow.invalid(line, "JSON 객체가 아닙니다.");
+                    }
+                    return MemberImportRow.of(line,
+                            node.path("name").textValue(), node.path("city").textValue(),
+                            node.path("street").textValue(), node.path("zipcode").textValue());
+                } catch (JsonProcessingException e) {
+                    return MemberImportRow.invalid(line, "JSON 형식이 잘못되었습니다: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * 한 줄을 해석한다. 건너뛸 줄이면 null
+     */
+    abstract MemberImportRow parse(long line, String text);
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String nextLine;
+            try {
+                nextLine = reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (nextLine == null) {
+                return false;
+            }
+            lineNumber++;
+            if (!nextLine.isBlank()) {
+                next = parse(lineNumber, nextLine);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public MemberImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MemberImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private static String value(List<String> values, int index) {
+        if (index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    // "..." 안의 쉼표와 "" (따옴표 escape)를 처리한다. 따옴표가 닫히지 않으면 null
+    static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(sb.toString().trim());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(sb.toString().trim());
+        return values;
+    }
+}
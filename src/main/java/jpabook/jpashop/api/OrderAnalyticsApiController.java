@@ -0,0 +1,150 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns.Filter;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns.GroupBy;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns.Measure;
+import jpabook.jpashop.service.OrderAnalyticsService;
+import jpabook.jpashop.support.collection.LongLongMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 분석 API.
+ * DB나 Hibernate를 거치지 않고 메모리의 컬럼형 스냅샷(OrderLineColumns)을 훑어서 계산한다.
+ * 스냅샷은 최대 몇 초 늦을 수 있다. (OrderAnalyticsService 참조)
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderAnalyticsApiController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    // 매출 상위 상품
+    @GetMapping("/api/analytics/top-items")
+    public Result<List<ItemSalesDto>> topItems(
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "status", defaultValue = "ORDER") OrderStatus status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        OrderLineColumns columns = orderAnalyticsService.getColumns();
+        Filter filter = filter(status, from, to);
+        LongLongMap revenues = columns.groupSum(GroupBy.ITEM, Measure.REVENUE, filter);
+        LongLongMap quantities = columns.groupSum(GroupBy.ITEM, Measure.QUANTITY, filter);
+
+        List<ItemSalesDto> items = new ArrayList<>(revenues.size());
+        revenues.forEach((itemId, revenue) -> items.add(new ItemSalesDto(itemId, quantities.get(itemId, 0), revenue)));
+        List<ItemSalesDto> collect = items.stream()
+                .sorted(Comparator.comparingLong(ItemSalesDto::getRevenue).reversed().thenComparing(ItemSalesDto::getItemId))
+                .limit(Math.min(Math.max(limit, 1), MAX_LIMIT))
+                .collect(Collectors.toList());
+        return new Result<>(collect.size(), collect);
+    }
+
+    // 주문 상태별 매출
+    @GetMapping("/api/analytics/revenue-by-status")
+    public Result<List<StatusSalesDto>> revenueByStatus(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        OrderLineColumns columns = orderAnalyticsService.getColumns();
+        Filter filter = filter(null, from, to);
+        long[] lines = columns.sumByStatus(Measure.LINES, filter);
+        long[] revenues = columns.sumByStatus(Measure.REVENUE, filter);
+
+        OrderStatus[] statuses = OrderStatus.values();
+        List<StatusSalesDto> collect = new ArrayList<>(statuses.length);
+        for (OrderStatus status : statuses) {
+            collect.add(new StatusSalesDto(status, lines[status.ordinal()], revenues[status.ordinal()]));
+        }
+        return new Result<>(collect.size(), collect);
+    }
+
+    // 장바구니 크기(주문 하나의 총 수량)별 주문 수
+    @GetMapping("/api/analytics/basket-size")
+    public BasketSizeDto basketSize(
+            @RequestParam(value = "status", defaultValue = "ORDER") OrderStatus status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LongLongMap quantityByOrder = orderAnalyticsService.getColumns()
+                .groupSum(GroupBy.ORDER, Measure.QUANTITY, filter(status, from, to));
+
+        LongLongMap ordersByQuantity = new LongLongMap();
+        long[] totalQuantity = new long[1];
+        quantityByOrder.forEach((orderId, quantity) -> {
+            ordersByQuantity.addTo(quantity, 1);
+            totalQuantity[0] += quantity;
+        });
+        // 응답은 수량 순으로 (서로 다른 수량 수만큼이라 작다)
+        Map<Long, Long> histogram = new TreeMap<>();
+        ordersByQuantity.forEach(histogram::put);
+
+        double average = quantityByOrder.isEmpty() ? 0 : (double) totalQuantity[0] / quantityByOrder.size();
+        return new BasketSizeDto(quantityByOrder.size(), average, histogram);
+    }
+
+    // 스냅샷을 바로 갱신한다.
+    @PostMapping("/api/analytics/refresh")
+    public RefreshResponse refresh() {
+        return new RefreshResponse(orderAnalyticsService.refresh().size());
+    }
+
+    private Filter filter(OrderStatus status, LocalDate from, LocalDate to) {
+        return Filter.all()
+                .status(status)
+                .days(from == null ? null : (int) from.toEpochDay(), to == null ? null : (int) to.toEpochDay());
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Result<T> {
+        private int count;
+        private T data;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class ItemSalesDto {
+        private Long itemId;
+        private long quantity;
+        private long revenue;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StatusSalesDto {
+        private OrderStatus status;
+        private long lines;
+        private long revenue;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class BasketSizeDto {
+        private int orders;
+        private double averageQuantity;
+        private Map<Long, Long> ordersByQuantity;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class RefreshResponse {
+        private int lines;
+    }
+}
@@ -1,5 +1,6 @@
 package jpabook.jpashop.api;
 
+import jpabook.jpashop.api.codec.OrderBinaryFormat;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
@@ -10,13 +11,30 @@ import jpabook.jpashop.repository.order.query.OrderFlatDto;
 import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.AggregateVersions;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
+import jpabook.jpashop.service.OrderArchiveService;
+import jpabook.jpashop.service.OrderService;
+import jpabook.jpashop.support.SingleFlight;
+import jpabook.jpashop.support.collection.LongObjectMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
-
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -37,6 +55,10 @@ public class OrderApiController {
 
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderService orderService;
+    private final OrderArchiveService orderArchiveService;
+    private final AggregateVersions aggregateVersions;
+    private final SingleFlight singleFlight;
 
 
     /*
@@ -172,18 +194,25 @@ public class OrderApiController {
     결론
         - xToOne 관계는 부담없이 fetch join으로 쿼리 수를 줄이고 나머지 xToMany 관계는 batch fetch로 지연 로딩을 최적화 하자!
         - 페이징을 써야 하면 다른 대안이 거의 없다. 이 방법을 쓸 수 밖에 없다.
+
+    같은 offset, limit 요청이 동시에 몰리면 한 번만 조회하고 결과를 나눠 쓴다. (SingleFlight)
+    key에 주문, 회원, 상품 버전을 넣었으므로 데이터가 바뀐 뒤에는 다시 조회한다.
      */
     @GetMapping("/api/v3.1/orders")
     public List<OrderDto> ordersV3_1(
             @RequestParam(value = "offset", defaultValue = "0") int offset,
             @RequestParam(value = "limit", defaultValue = "100") int limit) {
 
-        List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit);
-
-        return orders.stream()
-                .map(OrderDto::new)
-                .collect(Collectors.toList());
+        String key = "v3.1/orders?offset=" + offset + "&limit=" + limit + "#"
+                + aggregateVersions.etag(Aggregate.ORDER, Aggregate.MEMBER, Aggregate.ITEM);
+        // 엔티티는 조회한 요청의 영속성 컨텍스트에 속하므로 DTO로 바꾼 결과를 공유한다.
+        return singleFlight.execute(key, () -> {
+            List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit);
 
+            return orders.stream()
+                    .map(OrderDto::new)
+                    .collect(Collectors.toList());
+        });
     }
 
     // ordersV3_1와 모두 동일하지만 order만 조회하고 member와 delivery를 fetch join에서 제외하였다.
@@ -240,10 +269,49 @@ public class OrderApiController {
     - Map을 이용해 매칭 성능 향상 (O(1))
 
     뭔가... batch fetch 로직을 수동으로 돌린 느낌이다.
+
+    주문, 회원(이름), 상품(이름)이 바뀌지 않았으면 조회하지 않고 304로 응답한다. (AggregateVersions 참조)
+    JSON과 바이너리(application/x-jpashop-orders) 응답은 ETag를 다르게 주고 Vary: Accept를 붙인다.
+    (같은 ETag면 캐시가 다른 표현에 304를 줄 수 있다)
      */
     @GetMapping("/api/v5/orders")
-    public List<OrderQueryDto> ordersV5() {
-        return orderQueryRepository.findAllByDto_optimization();
+    public List<OrderQueryDto> ordersV5(WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = aggregateVersions.etag(Aggregate.ORDER, Aggregate.MEMBER, Aggregate.ITEM);
+        if (acceptsBinary(request.getHeader(HttpHeaders.ACCEPT))) {
+            etag = etag.substring(0, etag.length() - 1) + ".bin\"";
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return singleFlight.execute("v5/orders#" + etag, orderQueryRepository::findAllByDto_optimization);
+    }
+
+    // 메시지 컨버터와 같은 기준으로 바이너리 응답이 선택될지 본다.
+    // 품질, 구체성 순으로 보다가 바이너리를 직접 지정했으면 바이너리, JSON과 맞는 타입(*/* 포함)이 먼저 나오면 JSON이다.
+    private static boolean acceptsBinary(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (!mediaType.isWildcardSubtype() && mediaType.includes(OrderBinaryFormat.MEDIA_TYPE)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
     }
 
     /*
@@ -265,19 +333,83 @@ public class OrderApiController {
         List<OrderFlatDto> flats = orderQueryRepository.findAllByDto_flat();
 
         // List<OrderFlatDto> --> List<OrderQueryDto>
-        // OrderQueryDto를 key로 사용하고 OrderItemQueryDto를 value로 분류한 후
-        // key에 소속되어 있는 value를 key의 orderItems에 set 하였다.
-        // OrderQueryDto를 key로 사용한 덕분에 distinct한 OrderQueryDto만 key로 정리된다.
-        // OrderQueryDto를 key로 사용하기 때문에 OrderQueryDto의 hash, equals 메서드가 매우 중요하다.
-        // orderId 기준으로 판단하는 것으로 재 정의하였다.
-        return flats.stream()
-                .collect(Collectors.groupingBy(
-                        o -> new OrderQueryDto(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
-                        Collectors.mapping(o -> new OrderItemQueryDto(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()), Collectors.toList())
-                )).entrySet().stream()
-                .map(e -> new OrderQueryDto(e.getKey().getOrderId(), e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(),
-                        e.getKey().getAddress(), e.getValue()))
-                .collect(Collectors.toList());
+        // orderId로 주문 DTO를 찾아서 OrderItemQueryDto를 붙인다.
+        // 처음 나온 orderId면 주문 DTO를 만들어 결과에 추가하므로 distinct한 주문만 남는다.
+        // OrderQueryDto 자체를 key로 해싱하지 않고 long orderId를 key로 쓴다. (박싱, Entry 객체 없음)
+        LongObjectMap<OrderQueryDto> ordersById = new LongObjectMap<>();
+        List<OrderQueryDto> result = new ArrayList<>();
+        for (OrderFlatDto o : flats) {
+            OrderQueryDto order = ordersById.get(o.getOrderId());
+            if (order == null) {
+                order = new OrderQueryDto(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress(), new ArrayList<>());
+                ordersById.put(o.getOrderId(), order);
+                result.add(order);
+            }
+            order.getOrderItems().add(new OrderItemQueryDto(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()));
+        }
+        return result;
+    }
+
+    // 벌크 주문 취소
+    // orderIds가 있으면 해당 주문들을, 없으면 memberName, orderStatus, fromDate, toDate 검색 조건에 해당하는 주문들을 취소한다.
+    // 주문 수와 상관없이 쿼리 수가 일정하다. (OrderService.cancelOrders 참조)
+    // orderIds도 검색 조건도 없는 요청({})은 전체 취소가 되므로 거부한다.
+    // 한 번에 최대 OrderService.MAX_CANCEL_BATCH_SIZE건. 검색 조건으로 취소할 때는 canceledCount가 0이 될 때까지 다시 호출한다.
+    @PostMapping("/api/orders/cancel")
+    public CancelOrdersResponse cancelOrders(@RequestBody CancelOrdersRequest request) {
+        int canceled;
+        if (request.getOrderIds() != null) {
+            if (request.getOrderIds().size() > OrderService.MAX_CANCEL_BATCH_SIZE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "orderIds는 최대 " + OrderService.MAX_CANCEL_BATCH_SIZE + "개까지 보낼 수 있습니다.");
+            }
+            canceled = orderService.cancelOrders(request.getOrderIds());
+        } else {
+            if (!request.hasSearchCondition()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "orderIds 또는 검색 조건이 필요합니다.");
+            }
+            OrderSearch orderSearch = new OrderSearch();
+            orderSearch.setMemberName(request.getMemberName());
+            orderSearch.setOrderStatus(request.getOrderStatus());
+            orderSearch.setFromDate(request.getFromDate());
+            orderSearch.setToDate(request.getToDate());
+            canceled = orderService.cancelOrders(orderSearch);
+        }
+        return new CancelOrdersResponse(canceled);
+    }
+
+    @Data
+    static class CancelOrdersRequest {
+        private List<Long> orderIds;
+        private String memberName;
+        private OrderStatus orderStatus;
+        private LocalDate fromDate;
+        private LocalDate toDate;
+
+        boolean hasSearchCondition() {
+            return StringUtils.hasText(memberName) || orderStatus != null || fromDate != null || toDate != null;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CancelOrdersResponse {
+        private int canceledCount;
+    }
+
+    // before 이전에 주문했고 끝난(취소 또는 배송 완료) 주문을 아카이브 테이블로 옮긴다.
+    // orders, order_item, delivery에는 최근 주문만 남는다. (OrderArchiveService 참조)
+    @PostMapping("/api/orders/archive")
+    public ArchiveOrdersResponse archiveOrders(
+            @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(value = "batchSize", defaultValue = "500") int batchSize) {
+        return new ArchiveOrdersResponse(orderArchiveService.archiveClosedOrders(before, Math.min(Math.max(batchSize, 1), 5000)));
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class ArchiveOrdersResponse {
+        private int archivedCount;
     }
 
     @Getter
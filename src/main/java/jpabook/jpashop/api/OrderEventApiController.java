@@ -0,0 +1,75 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.OrderEvent;
+import jpabook.jpashop.domain.OrderEventType;
+import jpabook.jpashop.repository.OrderEventRepository;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 변경 피드.
+ * 외부 시스템은 주문 API(/api/v5/orders 등)를 매번 전부 조회하는 대신, 마지막으로 받은 피드 위치(next)를 after로 넘겨서
+ * 그 뒤에 생긴 변경만 순서대로 받아간다.
+ * 피드 위치는 커밋된 이벤트에만 OrderEventRelay가 매기므로, 이벤트는 커밋되고 relay 주기만큼 지나서 나온다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderEventApiController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final OrderEventRepository orderEventRepository;
+
+    @GetMapping("/api/order-events")
+    public OrderEventFeed orderEvents(
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        List<OrderEventDto> events = orderEventRepository.findAfter(after, Math.min(Math.max(limit, 1), MAX_LIMIT)).stream()
+                .map(OrderEventDto::new)
+                .collect(Collectors.toList());
+
+        // 받은 이벤트가 없으면 다음에도 같은 위치부터 읽는다.
+        long next = events.isEmpty() ? after : events.get(events.size() - 1).getPosition();
+        return new OrderEventFeed(events.size(), next, events);
+    }
+
+    @Data
+    static class OrderEventFeed {
+        private int count;
+        private long next;
+        private List<OrderEventDto> data;
+
+        public OrderEventFeed(int count, long next, List<OrderEventDto> data) {
+            this.count = count;
+            this.next = next;
+            this.data = data;
+        }
+    }
+
+    @Data
+    static class OrderEventDto {
+        private Long id;
+        private Long position;
+        private Long orderId;
+        private Long memberId;
+        private OrderEventType type;
+        private LocalDateTime createdAt;
+
+        public OrderEventDto(OrderEvent event) {
+            id = event.getId();
+            position = event.getFeedPosition();
+            orderId = event.getOrderId();
+            memberId = event.getMemberId();
+            type = event.getType();
+            createdAt = event.getCreatedAt();
+        }
+    }
+}
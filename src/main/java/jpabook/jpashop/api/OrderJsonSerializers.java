@@ -0,0 +1,195 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.OrderSimpleQueryDto;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 주문 API DTO 직렬화기.
+ *
+ * 기본 Jackson은 DTO마다 getter를 리플렉션으로 찾아서 호출하고, Address와 LocalDateTime도 각각의 serializer를 거친다.
+ * 여기서는 필드를 순서대로 직접 쓴다. 결과 JSON은 기본 Jackson과 같다. (필드 순서, null, 날짜 형식 모두)
+ * - LocalDateTime은 ISO_LOCAL_DATE_TIME 형식을 문자열을 만들지 않고 char 배열에 바로 쓴다.
+ * - OrderItemQueryDto.orderId는 @JsonIgnore와 마찬가지로 쓰지 않는다.
+ * 응답 스트림과 버퍼는 Jackson(MappingJackson2HttpMessageConverter)이 재사용하는 것을 그대로 쓴다.
+ * DTO 필드를 바꾸면 여기도 같이 바꿔야 한다. (OrderJsonSerializersTest가 기본 Jackson 결과와 비교한다)
+ */
+@JsonComponent
+public class OrderJsonSerializers {
+
+    static class OrderDtoSerializer extends JsonSerializer<OrderApiController.OrderDto> {
+        @Override
+        public void serialize(OrderApiController.OrderDto order, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            writeOrderHeader(gen, order.getOrderId(), "memberName", order.getMemberName(),
+                    order.getOrderDate(), order.getOrderStatus(), "deliveryAddress", order.getDeliveryAddress());
+            gen.writeFieldName("orderItems");
+            List<OrderApiController.OrderItemDto> orderItems = order.getOrderItems();
+            if (orderItems == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(orderItems, orderItems.size());
+                for (OrderApiController.OrderItemDto orderItem : orderItems) {
+                    writeOrderItem(gen, orderItem.getItemName(), orderItem.getOrderPrice(), orderItem.getCount());
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static class OrderItemDtoSerializer extends JsonSerializer<OrderApiController.OrderItemDto> {
+        @Override
+        public void serialize(OrderApiController.OrderItemDto orderItem, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            writeOrderItem(gen, orderItem.getItemName(), orderItem.getOrderPrice(), orderItem.getCount());
+        }
+    }
+
+    static class OrderQueryDtoSerializer extends JsonSerializer<OrderQueryDto> {
+        @Override
+        public void serialize(OrderQueryDto order, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            writeOrderHeader(gen, order.getOrderId(), "name", order.getName(),
+                    order.getOrderDate(), order.getOrderStatus(), "address", order.getAddress());
+            gen.writeFieldName("orderItems");
+            List<OrderItemQueryDto> orderItems = order.getOrderItems();
+            if (orderItems == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(orderItems, orderItems.size());
+                for (OrderItemQueryDto orderItem : orderItems) {
+                    writeOrderItem(gen, orderItem.getItemName(), orderItem.getOrderPrice(), orderItem.getCount());
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static class OrderItemQueryDtoSerializer extends JsonSerializer<OrderItemQueryDto> {
+        @Override
+        public void serialize(OrderItemQueryDto orderItem, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            writeOrderItem(gen, orderItem.getItemName(), orderItem.getOrderPrice(), orderItem.getCount());
+        }
+    }
+
+    static class SimpleOrderDtoSerializer extends JsonSerializer<OrderSimpleApiController.SimpleOrderDto> {
+        @Override
+        public void serialize(OrderSimpleApiController.SimpleOrderDto order, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            writeOrderHeader(gen, order.getOrderId(), "memberName", order.getMemberName(),
+                    order.getOrderDate(), order.getOrderStatus(), "deliveryAddress", order.getDeliveryAddress());
+            gen.writeEndObject();
+        }
+    }
+
+    static class OrderSimpleQueryDtoSerializer extends JsonSerializer<OrderSimpleQueryDto> {
+        @Override
+        public void serialize(OrderSimpleQueryDto order, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            writeOrderHeader(gen, order.getOrderId(), "memberName", order.getMemberName(),
+                    order.getOrderDate(), order.getOrderStatus(), "deliveryAddress", order.getDeliveryAddress());
+            gen.writeEndObject();
+        }
+    }
+
+    // 주문 DTO들의 공통 앞부분 (DTO마다 이름과 주소 필드명만 다르다)
+    private static void writeOrderHeader(JsonGenerator gen, Long orderId, String nameField, String name,
+                                         LocalDateTime orderDate, OrderStatus orderStatus,
+                                         String addressField, Address address) throws IOException {
+        gen.writeFieldName("orderId");
+        if (orderId == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(orderId.longValue());
+        }
+        gen.writeStringField(nameField, name);
+        gen.writeFieldName("orderDate");
+        writeDateTime(gen, orderDate);
+        gen.writeStringField("orderStatus", orderStatus == null ? null : orderStatus.name());
+        gen.writeFieldName(addressField);
+        if (address == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject();
+            gen.writeStringField("city", address.getCity());
+            gen.writeStringField("street", address.getStreet());
+            gen.writeStringField("zipcode", address.getZipcode());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeOrderItem(JsonGenerator gen, String itemName, int orderPrice, int count) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("itemName", itemName);
+        gen.writeNumberField("orderPrice", orderPrice);
+        gen.writeNumberField("count", count);
+        gen.writeEndObject();
+    }
+
+    /**
+     * DateTimeFormatter.ISO_LOCAL_DATE_TIME과 같은 형식 (yyyy-MM-ddTHH:mm:ss, 나노초는 있을 때만 끝의 0을 빼고)
+     */
+    static void writeDateTime(JsonGenerator gen, LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            // 부호나 다섯 자리 이상 연도는 드물므로 포맷터에 맡긴다.
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+            return;
+        }
+        char[] buf = new char[29];
+        write4(buf, 0, year);
+        buf[4] = '-';
+        write2(buf, 5, dateTime.getMonthValue());
+        buf[7] = '-';
+        write2(buf, 8, dateTime.getDayOfMonth());
+        buf[10] = 'T';
+        write2(buf, 11, dateTime.getHour());
+        buf[13] = ':';
+        write2(buf, 14, dateTime.getMinute());
+        buf[16] = ':';
+        write2(buf, 17, dateTime.getSecond());
+        int length = 19;
+
+        int nano = dateTime.getNano();
+        if (nano > 0) {
+            buf[length++] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            for (int i = length + digits - 1; i >= length; i--) {
+                buf[i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+            length += digits;
+        }
+        gen.writeString(buf, 0, length);
+    }
+
+    private static void write2(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void write4(char[] buf, int offset, int value) {
+        write2(buf, offset, value / 100);
+        write2(buf, offset + 2, value % 100);
+    }
+}
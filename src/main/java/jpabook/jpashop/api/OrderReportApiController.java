@@ -0,0 +1,99 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.repository.order.report.OrderReportDto;
+import jpabook.jpashop.repository.order.report.OrderReportItemDto;
+import jpabook.jpashop.repository.order.report.OrderReportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 야간 리포트용 주문 CSV 다운로드.
+ * OrderReportRepository에서 주문을 한 건씩 받아서 바로 응답 스트림에 쓴다. (전체 결과를 메모리에 올리지 않는다)
+ * from, to는 날짜(yyyy-MM-dd)이고 둘 다 포함한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderReportApiController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final OrderReportRepository orderReportRepository;
+
+    @GetMapping("/api/reports/orders")
+    public ResponseEntity<StreamingResponseBody> ordersReport(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write("order_id,order_date,order_status,member_id,member_name,delivery_status," +
+                    "city,street,zipcode,item_id,item_name,order_price,count\n");
+
+            orderReportRepository.streamOrders(
+                    from == null ? null : from.atStartOfDay(),
+                    // to는 그 날짜까지 포함한다. (주문 검색의 toDate와 같다)
+                    to == null ? null : to.plusDays(1).atStartOfDay(),
+                    order -> writeOrder(writer, order));
+
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .body(body);
+    }
+
+    private void writeOrder(Writer writer, OrderReportDto order) {
+        try {
+            for (OrderReportItemDto item : order.getOrderItems()) {
+                Address address = order.getDeliveryAddress();
+                writer.write(csvLine(
+                        order.getOrderId(), order.getOrderDate(), order.getOrderStatus(),
+                        order.getMemberId(), order.getMemberName(), order.getDeliveryStatus(),
+                        address == null ? null : address.getCity(),
+                        address == null ? null : address.getStreet(),
+                        address == null ? null : address.getZipcode(),
+                        item.getItemId(), item.getItemName(), item.getOrderPrice(), item.getCount()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String csvLine(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(csvValue(values[i]));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -6,10 +6,13 @@ import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
 import jpabook.jpashop.repository.OrderSimpleQueryDto;
+import jpabook.jpashop.service.AggregateVersions;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,6 +30,7 @@ import java.util.stream.Collectors;
 public class OrderSimpleApiController {
 
     private final OrderRepository orderRepository;
+    private final AggregateVersions aggregateVersions;
 
     // Member <--> Order 양방향 연관관계 때문에 무한루프에 빠진다! --> 예외 발생
     // 그 외에도 양방향 걸리는 곳 모두 무한루프에 걸리게 한다. (StackOverFlowError)
@@ -94,8 +98,12 @@ public class OrderSimpleApiController {
 
     // fetch join으로 order, member, delivery를 한번에 가져오기 때문에
     // 더 이상 member와 delivery 정보를 위해 추가적으로 sql을 날리지 않는다. (SimpleOrderDto로 변환 시)
+    // 주문, 회원(이름)이 바뀌지 않았으면 조회하지 않고 304로 응답한다.
     @GetMapping("/api/v3/simple-orders")
-    public List<SimpleOrderDto> ordersV3() {
+    public List<SimpleOrderDto> ordersV3(WebRequest request) {
+        if (request.checkNotModified(aggregateVersions.etag(Aggregate.ORDER, Aggregate.MEMBER))) {
+            return null;
+        }
         List<Order> orders = orderRepository.findAllWithMemberDelivery();
         //System.out.println("member : " + orders.get(0).getMember());
         // Member 객체를 프린트 해 보면, 프록시 객체가 아니라 Member 객체로 찍히는 것을 확인할 수 있다.
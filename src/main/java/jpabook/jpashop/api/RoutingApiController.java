@@ -0,0 +1,53 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.datasource.ReplicaHealth;
+import jpabook.jpashop.datasource.RoutingMetrics;
+import jpabook.jpashop.datasource.RoutingPools;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 읽기/쓰기 커넥션 라우팅 현황. (RoutingDataSourceConfig 참조)
+ * 풀별 라우팅 횟수, 레플리카 폴백 횟수, 레플리카별 마지막 지연 확인 결과를 보여준다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "jpashop.datasource.routing", name = "enabled", havingValue = "true")
+public class RoutingApiController {
+
+    private final RoutingMetrics routingMetrics;
+    private final ReplicaHealth replicaHealth;
+    private final RoutingPools routingPools;
+
+    @GetMapping("/api/datasource/routing")
+    public RoutingDto routing() {
+        List<ReplicaDto> replicas = routingPools.getReplicas().keySet().stream()
+                .map(key -> new ReplicaDto(key, replicaHealth.isAvailable(key), replicaHealth.getLagSeconds(key)))
+                .collect(Collectors.toList());
+        return new RoutingDto(routingMetrics.getRoutedCounts(), routingMetrics.getFallbackCount(), replicas);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class RoutingDto {
+        private Map<String, Long> routedCounts;
+        private long fallbackCount;     // 사용 가능한 레플리카가 없어서 readOnly 트랜잭션을 primary로 보낸 횟수
+        private List<ReplicaDto> replicas;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class ReplicaDto {
+        private String key;
+        private boolean available;
+        private Double lagSeconds;      // lag-query가 없거나 연결이 안되면 null
+    }
+}
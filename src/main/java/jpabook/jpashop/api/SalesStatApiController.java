@@ -0,0 +1,104 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.SalesDimension;
+import jpabook.jpashop.domain.SalesStat;
+import jpabook.jpashop.service.SalesStatService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 매출 통계 조회.
+ * 주문을 훑지 않고 미리 집계해 둔 SalesStat row만 읽는다. (SalesStatService 참조)
+ */
+@RestController
+@RequiredArgsConstructor
+public class SalesStatApiController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SalesStatService salesStatService;
+
+    // 상품 하나 또는 회원 하나의 통계 (row 한 건)
+    @GetMapping("/api/stats/sales/{dimension}/{keyId}")
+    public SalesStatDto salesStat(@PathVariable("dimension") SalesDimension dimension,
+                                  @PathVariable("keyId") Long keyId) {
+        SalesStat stat = salesStatService.findStat(dimension, keyId);
+        return stat == null ? new SalesStatDto(dimension, keyId, 0, 0, 0) : new SalesStatDto(stat);
+    }
+
+    // 매출 순 상위 limit개
+    @GetMapping("/api/stats/sales/{dimension}")
+    public Result<List<SalesStatDto>> topSales(@PathVariable("dimension") SalesDimension dimension,
+                                               @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<SalesStatDto> collect = salesStatService.findTop(dimension, Math.min(Math.max(limit, 1), MAX_LIMIT)).stream()
+                .map(SalesStatDto::new)
+                .collect(Collectors.toList());
+        return new Result<>(collect.size(), collect);
+    }
+
+    // 일별 통계 (from ~ to, 둘 다 포함)
+    @GetMapping("/api/stats/sales/days")
+    public Result<List<DailySalesDto>> dailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailySalesDto> collect = salesStatService.findRange(SalesDimension.DAY, from.toEpochDay(), to.toEpochDay()).stream()
+                .map(DailySalesDto::new)
+                .collect(Collectors.toList());
+        return new Result<>(collect.size(), collect);
+    }
+
+    // 주문 테이블에서 통계 전체를 다시 집계한다.
+    @PostMapping("/api/stats/sales/rebuild")
+    public RebuildResponse rebuild() {
+        return new RebuildResponse(salesStatService.rebuild());
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Result<T> {
+        private int count;
+        private T data;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class SalesStatDto {
+        private SalesDimension dimension;
+        private Long keyId;
+        private long orderCount;
+        private long quantity;
+        private long revenue;
+
+        SalesStatDto(SalesStat stat) {
+            this(stat.getDimension(), stat.getKeyId(), stat.getOrderCount(), stat.getQuantity(), stat.getRevenue());
+        }
+    }
+
+    @Data
+    static class DailySalesDto {
+        private LocalDate date;
+        private long orderCount;
+        private long quantity;
+        private long revenue;
+
+        DailySalesDto(SalesStat stat) {
+            date = LocalDate.ofEpochDay(stat.getKeyId());
+            orderCount = stat.getOrderCount();
+            quantity = stat.getQuantity();
+            revenue = stat.getRevenue();
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class RebuildResponse {
+        private int rowCount;
+    }
+}
@@ -0,0 +1,34 @@
+package jpabook.jpashop.api.codec;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 주문 목록(List<OrderQueryDto>) 바이너리 형식. (서비스 간 호출용)
+ *
+ * 헤더: MAGIC(4바이트), VERSION(1바이트)
+ * 주문마다: 1(주문 있음), orderId, name, orderDate, orderStatus, address, orderItems
+ * 끝: 0
+ *
+ * - 정수는 zigzag varint. null일 수 있는 값은 +1 해서 쓰고 0을 null로 쓴다.
+ * - orderDate는 epoch second(UTC로 본 값) + nano
+ * - 문자열은 문자열 표를 쓴다. 0은 null, 1은 새 문자열(길이 + UTF-8, 표에 추가), n + 2는 표의 n번째 문자열.
+ *   같은 회원명, 상품명, 도시명, 상태값은 두 번째부터 1~3바이트로 끝난다.
+ *   표는 MAX_STRING_TABLE_SIZE개까지만 채운다. (쓰는 쪽과 읽는 쪽이 같은 규칙으로 채운다)
+ * - OrderItemQueryDto.orderId는 쓰지 않는다. 읽을 때 주문의 orderId로 채운다.
+ */
+public final class OrderBinaryFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-jpashop-orders";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final int MAGIC = 0x4A504F52;  // "JPOR"
+    static final int VERSION = 1;
+    static final int MAX_STRING_TABLE_SIZE = 1 << 16;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_NEW = 1;
+    static final int STRING_REF_OFFSET = 2;
+
+    private OrderBinaryFormat() {
+    }
+}
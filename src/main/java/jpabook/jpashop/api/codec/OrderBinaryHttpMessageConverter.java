@@ -0,0 +1,73 @@
+package jpabook.jpashop.api.codec;
+
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Accept: application/x-jpashop-orders 이면 List<OrderQueryDto> 응답을 OrderBinaryFormat으로 쓴다. (v4, v5, v6 주문 API)
+ * 클라이언트에서는 RestTemplate에 등록하고 ParameterizedTypeReference<List<OrderQueryDto>>로 받으면 된다.
+ */
+public class OrderBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<OrderQueryDto>> {
+
+    private static final ResolvableType ORDER_LIST = ResolvableType.forClassWithGenerics(List.class, OrderQueryDto.class);
+
+    public OrderBinaryHttpMessageConverter() {
+        super(OrderBinaryFormat.MEDIA_TYPE);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return isOrderList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return type != null && isOrderList(type) && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // 제네릭 타입까지 봐야 하므로 canRead, canWrite에서 판단한다.
+        return false;
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        // 응답 타입을 고를 때 클래스(List)만 넘어오므로 여기서는 List면 지원한다고 본다.
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : Collections.emptyList();
+    }
+
+    @Override
+    public List<OrderQueryDto> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return new OrderBinaryReader(inputMessage.getBody()).readAll();
+    }
+
+    @Override
+    protected List<OrderQueryDto> readInternal(Class<? extends List<OrderQueryDto>> clazz, HttpInputMessage inputMessage) throws IOException {
+        return new OrderBinaryReader(inputMessage.getBody()).readAll();
+    }
+
+    @Override
+    protected void writeInternal(List<OrderQueryDto> orders, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        OrderBinaryWriter writer = new OrderBinaryWriter(outputMessage.getBody());
+        writer.writeHeader();
+        for (OrderQueryDto order : orders) {
+            writer.write(order);
+        }
+        writer.writeEnd();
+    }
+
+    private boolean isOrderList(Type type) {
+        return ORDER_LIST.isAssignableFrom(ResolvableType.forType(type));
+    }
+}
@@ -0,0 +1,149 @@
+package jpabook.jpashop.api.codec;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * OrderBinaryFormat으로 쓴 주문을 읽는다. (클라이언트용)
+ * read(consumer)는 주문을 하나씩 넘기므로 목록 전체를 메모리에 두지 않아도 된다.
+ */
+public class OrderBinaryReader {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private final List<String> strings = new ArrayList<>();
+
+    public OrderBinaryReader(InputStream in) {
+        this.in = in;
+    }
+
+    public List<OrderQueryDto> readAll() throws IOException {
+        List<OrderQueryDto> orders = new ArrayList<>();
+        read(orders::add);
+        return orders;
+    }
+
+    /**
+     * 주문 수를 돌려준다.
+     */
+    public int read(Consumer<OrderQueryDto> consumer) throws IOException {
+        int magic = (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        if (magic != OrderBinaryFormat.MAGIC) {
+            throw new IOException("not a jpashop order stream");
+        }
+        int version = readByte();
+        if (version != OrderBinaryFormat.VERSION) {
+            throw new IOException("unsupported version: " + version);
+        }
+
+        int count = 0;
+        while (readByte() == 1) {
+            consumer.accept(readOrder());
+            count++;
+        }
+        return count;
+    }
+
+    private OrderQueryDto readOrder() throws IOException {
+        long orderIdValue = readVarLong();
+        Long orderId = orderIdValue == 0 ? null : unzigzag(orderIdValue - 1);
+        String name = readString();
+        LocalDateTime orderDate = readDateTime();
+        String status = readString();
+        Address address = readByte() == 0 ? null : new Address(readString(), readString(), readString());
+
+        long itemCount = readVarLong();
+        List<OrderItemQueryDto> orderItems = null;
+        if (itemCount > 0) {
+            int size = Math.toIntExact(itemCount - 1);
+            orderItems = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String itemName = readString();
+                int orderPrice = (int) unzigzag(readVarLong());
+                int count = (int) unzigzag(readVarLong());
+                orderItems.add(new OrderItemQueryDto(orderId, itemName, orderPrice, count));
+            }
+        }
+        return new OrderQueryDto(orderId, name, orderDate, status == null ? null : OrderStatus.valueOf(status), address, orderItems);
+    }
+
+    private LocalDateTime readDateTime() throws IOException {
+        long seconds = readVarLong();
+        if (seconds == 0) {
+            return null;
+        }
+        int nano = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(unzigzag(seconds - 1), nano, ZoneOffset.UTC);
+    }
+
+    private String readString() throws IOException {
+        long tag = readVarLong();
+        if (tag == OrderBinaryFormat.STRING_NULL) {
+            return null;
+        }
+        if (tag != OrderBinaryFormat.STRING_NEW) {
+            return strings.get(Math.toIntExact(tag - OrderBinaryFormat.STRING_REF_OFFSET));
+        }
+
+        int length = Math.toIntExact(readVarLong());
+        String value;
+        if (length <= limit - pos) {
+            value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+        } else {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) readByte();
+            }
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (strings.size() < OrderBinaryFormat.MAX_STRING_TABLE_SIZE) {
+            strings.add(value);
+        }
+        return value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    private int readByte() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new EOFException();
+            }
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
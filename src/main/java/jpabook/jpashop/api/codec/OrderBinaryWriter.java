@@ -0,0 +1,153 @@
+package jpabook.jpashop.api.codec;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OrderBinaryFormat으로 주문을 하나씩 스트림에 쓴다. 내부 버퍼가 차면 out으로 내보낸다.
+ * writeHeader() -> write(order) 반복 -> writeEnd() 순서로 호출한다.
+ */
+public class OrderBinaryWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public OrderBinaryWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        ensure(5);
+        buf[pos++] = (byte) (OrderBinaryFormat.MAGIC >>> 24);
+        buf[pos++] = (byte) (OrderBinaryFormat.MAGIC >>> 16);
+        buf[pos++] = (byte) (OrderBinaryFormat.MAGIC >>> 8);
+        buf[pos++] = (byte) OrderBinaryFormat.MAGIC;
+        buf[pos++] = (byte) OrderBinaryFormat.VERSION;
+    }
+
+    public void write(OrderQueryDto order) throws IOException {
+        writeByte(1);
+        writeNullableLong(order.getOrderId());
+        writeString(order.getName());
+        writeDateTime(order.getOrderDate());
+        writeString(order.getOrderStatus() == null ? null : order.getOrderStatus().name());
+
+        Address address = order.getAddress();
+        if (address == null) {
+            writeByte(0);
+        } else {
+            writeByte(1);
+            writeString(address.getCity());
+            writeString(address.getStreet());
+            writeString(address.getZipcode());
+        }
+
+        List<OrderItemQueryDto> orderItems = order.getOrderItems();
+        if (orderItems == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(orderItems.size() + 1L);
+        for (OrderItemQueryDto orderItem : orderItems) {
+            writeString(orderItem.getItemName());
+            writeVarLong(zigzag(orderItem.getOrderPrice()));
+            writeVarLong(zigzag(orderItem.getCount()));
+        }
+    }
+
+    public void writeEnd() throws IOException {
+        writeByte(0);
+        flush();
+    }
+
+    public void flush() throws IOException {
+        out.write(buf, 0, pos);
+        pos = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(zigzag(dateTime.toEpochSecond(ZoneOffset.UTC)) + 1);
+        writeVarLong(dateTime.getNano());
+    }
+
+    private void writeNullableLong(Long value) throws IOException {
+        writeVarLong(value == null ? 0 : zigzag(value) + 1);
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(OrderBinaryFormat.STRING_NULL);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarLong(index + (long) OrderBinaryFormat.STRING_REF_OFFSET);
+            return;
+        }
+        if (strings.size() < OrderBinaryFormat.MAX_STRING_TABLE_SIZE) {
+            strings.put(value, strings.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(OrderBinaryFormat.STRING_NEW);
+        writeVarLong(bytes.length);
+        if (bytes.length > buf.length) {
+            flush();
+            out.write(bytes);
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensure(1);
+        buf[pos++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (pos + bytes > buf.length) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package jpabook.jpashop.batchfetch;
+
+import jpabook.jpashop.batchfetch.BatchFetchStats.Snapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 기록된 채움률로 배치 크기를 추천한다.
+ * - 거의 매번 가득 찬다(>= 90%): 한 번에 다 못 가져와서 왕복이 더 생기고 있다. 두 배로 (maxBatchSize까지)
+ * - 절반도 못 채운다(< 50%): 평균 * 1.5 로 줄인다. IN 절이 짧아지고 미리 만드는 배치 로더 수도 준다.
+ * - 그 사이면 그대로 둔다.
+ */
+public class BatchFetchAdvisor {
+
+    static final double FULL_RATIO = 0.9;
+    static final double UNDERFILLED_RATIO = 0.5;
+
+    private final long minRoundTrips;
+    private final int maxBatchSize;
+
+    public BatchFetchAdvisor(long minRoundTrips, int maxBatchSize) {
+        this.minRoundTrips = minRoundTrips;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Recommendation recommend(Snapshot snapshot) {
+        int current = Math.max(snapshot.getBatchSize(), 1);
+        if (snapshot.getRoundTrips() < minRoundTrips) {
+            return new Recommendation(current, Reason.NOT_ENOUGH_SAMPLES);
+        }
+        double fillRatio = snapshot.getFillRatio();
+        if (fillRatio >= FULL_RATIO) {
+            return new Recommendation(Math.max(Math.min(current * 2, maxBatchSize), current), Reason.FULL);
+        }
+        if (fillRatio < UNDERFILLED_RATIO) {
+            int size = (int) Math.ceil(snapshot.getAveragePerTrip() * 1.5);
+            return new Recommendation(Math.min(Math.max(size, 2), current), Reason.UNDERFILLED);
+        }
+        return new Recommendation(current, Reason.FITS);
+    }
+
+    public enum Reason {
+        NOT_ENOUGH_SAMPLES, FULL, UNDERFILLED, FITS
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Recommendation {
+        private final int batchSize;
+        private final Reason reason;
+    }
+}
@@ -0,0 +1,68 @@
+package jpabook.jpashop.batchfetch;
+
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.item.Item;
+
+/**
+ * 배치 페치를 기록하는 연관관계.
+ * 컬렉션은 연관관계(role)마다 배치 크기가 따로 있지만,
+ * ToOne은 Hibernate가 대상 엔티티 단위로 배치하므로 대상 엔티티로 구분한다. (OrderItem.item == Item)
+ */
+public enum BatchFetchAssociation {
+
+    ORDER_ITEMS("Order.orderItems", Order.class.getName() + ".orderItems", true),
+    ORDER_ITEM_ITEM("OrderItem.item", Item.class.getName(), false),
+    ORDER_MEMBER("Order.member", Member.class.getName(), false),
+    ORDER_DELIVERY("Order.delivery", Delivery.class.getName(), false);
+
+    private final String key;
+    private final String target;      // 컬렉션 role 또는 루트 엔티티 이름
+    private final boolean collection;
+
+    BatchFetchAssociation(String key, String target, boolean collection) {
+        this.key = key;
+        this.target = target;
+        this.collection = collection;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public boolean isCollection() {
+        return collection;
+    }
+
+    static BatchFetchAssociation ofCollectionRole(String role) {
+        for (BatchFetchAssociation association : values()) {
+            if (association.collection && association.target.equals(role)) {
+                return association;
+            }
+        }
+        return null;
+    }
+
+    static BatchFetchAssociation ofRootEntity(String rootEntityName) {
+        for (BatchFetchAssociation association : values()) {
+            if (!association.collection && association.target.equals(rootEntityName)) {
+                return association;
+            }
+        }
+        return null;
+    }
+
+    static BatchFetchAssociation ofKey(String key) {
+        for (BatchFetchAssociation association : values()) {
+            if (association.key.equals(key)) {
+                return association;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package jpabook.jpashop.batchfetch;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * jpashop.batch-fetch.enabled=true 일 때 Order.orderItems, OrderItem.item, Order.member, Order.delivery의
+ * 배치 페치 채움률을 기록한다. 결과와 추천 크기는 /api/batch-fetch 참조.
+ * jpashop.batch-fetch.apply-profile=true 면 기록은 끈 채로 프로필의 배치 크기만 적용할 수 있다. (운영)
+ */
+@Configuration
+@EnableConfigurationProperties(BatchFetchProperties.class)
+public class BatchFetchConfig {
+
+    private final BatchFetchProperties properties;
+
+    public BatchFetchConfig(BatchFetchProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jpashop.batch-fetch", name = "enabled", havingValue = "true")
+    public BatchFetchStats batchFetchStats() {
+        return new BatchFetchStats();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jpashop.batch-fetch", name = "enabled", havingValue = "true")
+    public BatchFetchAdvisor batchFetchAdvisor() {
+        return new BatchFetchAdvisor(properties.getMinRoundTrips(), properties.getMaxBatchSize());
+    }
+
+    // 기록(enabled)이나 프로필 적용(apply-profile) 중 하나라도 켜져 있으면 등록한다.
+    // 기록이 꺼져 있으면 stats가 없으므로 BatchFetchRecorder는 등록하지 않는다. (지연 로딩마다 드는 비용이 없다)
+    @Bean
+    @ConditionalOnExpression("${jpashop.batch-fetch.enabled:false} or ${jpashop.batch-fetch.apply-profile:false}")
+    public HibernatePropertiesCustomizer batchFetchHibernatePropertiesCustomizer(ObjectProvider<BatchFetchStats> stats) {
+        Map<BatchFetchAssociation, Integer> profile = properties.isApplyProfile()
+                ? BatchFetchProfile.load(Paths.get(properties.getProfile()))
+                : new EnumMap<>(BatchFetchAssociation.class);
+        BatchFetchIntegrator integrator = new BatchFetchIntegrator(stats.getIfAvailable(), profile);
+        return hibernateProperties -> hibernateProperties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> Collections.singletonList(integrator));
+    }
+}
@@ -0,0 +1,80 @@
+package jpabook.jpashop.batchfetch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * SessionFactory를 만들 때 (persister를 만들기 전에) 불린다.
+ * 1. 프로필의 배치 크기를 매핑 정보에 덮어쓴다. (@BatchSize를 붙인 것과 같다)
+ * 2. 연관관계별 실제 배치 크기를 BatchFetchStats에 적어 둔다.
+ * 3. BatchFetchRecorder를 기본 리스너 앞에 등록한다.
+ * stats가 null이면(기록을 끄고 프로필만 적용할 때) 1만 한다.
+ */
+@Slf4j
+public class BatchFetchIntegrator implements Integrator {
+
+    private final BatchFetchStats stats;
+    private final Map<BatchFetchAssociation, Integer> profile;
+
+    public BatchFetchIntegrator(BatchFetchStats stats, Map<BatchFetchAssociation, Integer> profile) {
+        this.stats = stats;
+        this.profile = profile;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        int defaultBatchSize = sessionFactory.getSessionFactoryOptions().getDefaultBatchFetchSize();
+
+        for (BatchFetchAssociation association : BatchFetchAssociation.values()) {
+            Integer size = profile.get(association);
+            int configured;
+            if (association.isCollection()) {
+                Collection binding = metadata.getCollectionBinding(association.getTarget());
+                if (size != null) {
+                    binding.setBatchSize(size);
+                }
+                configured = binding.getBatchSize();
+            } else {
+                PersistentClass binding = metadata.getEntityBinding(association.getTarget());
+                if (size != null) {
+                    // Item 하위 타입(Book, Album, Movie)도 같은 크기로
+                    binding.setBatchSize(size);
+                    for (Iterator<?> it = binding.getSubclassIterator(); it.hasNext(); ) {
+                        ((PersistentClass) it.next()).setBatchSize(size);
+                    }
+                }
+                configured = binding.getBatchSize();
+            }
+            // 지정하지 않으면 -1 -> default_batch_fetch_size
+            int effective = configured > 0 ? configured : Math.max(defaultBatchSize, 1);
+            if (stats != null) {
+                stats.setBatchSize(association, effective);
+            }
+            if (size != null) {
+                log.info("batch fetch profile: {} = {}", association.getKey(), effective);
+            }
+        }
+
+        if (stats == null) {
+            return;
+        }
+        BatchFetchRecorder recorder = new BatchFetchRecorder(stats);
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.LOAD, recorder);
+        registry.prependListeners(EventType.INIT_COLLECTION, recorder);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
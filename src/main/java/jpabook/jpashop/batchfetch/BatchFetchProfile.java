@@ -0,0 +1,65 @@
+package jpabook.jpashop.batchfetch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 연관관계별 배치 크기 프로필. properties 파일 한 줄에 하나 (Order.orderItems=200)
+ * 모르는 키나 숫자가 아닌 값은 무시한다.
+ */
+public final class BatchFetchProfile {
+
+    private BatchFetchProfile() {
+    }
+
+    public static Map<BatchFetchAssociation, Integer> load(Path path) {
+        Map<BatchFetchAssociation, Integer> sizes = new EnumMap<>(BatchFetchAssociation.class);
+        if (!Files.exists(path)) {
+            return sizes;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            BatchFetchAssociation association = BatchFetchAssociation.ofKey(key);
+            if (association == null) {
+                continue;
+            }
+            try {
+                int size = Integer.parseInt(properties.getProperty(key).trim());
+                if (size > 0) {
+                    sizes.put(association, size);
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return sizes;
+    }
+
+    public static void save(Path path, Map<BatchFetchAssociation, Integer> sizes) {
+        StringBuilder sb = new StringBuilder("# jpashop batch fetch profile\n");
+        sizes.forEach((association, size) -> sb.append(association.getKey()).append('=').append(size).append('\n'));
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(sb.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
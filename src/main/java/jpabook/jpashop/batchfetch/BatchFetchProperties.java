@@ -0,0 +1,24 @@
+package jpabook.jpashop.batchfetch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.batch-fetch")
+public class BatchFetchProperties {
+
+    // 지연 로딩 배치 채움률 기록
+    private boolean enabled;
+
+    // 추천 결과를 저장하고 읽는 파일
+    private String profile = "batch-fetch-profile.properties";
+
+    // true면 시작할 때 profile 파일의 배치 크기를 적용한다. (파일이 없으면 그대로)
+    private boolean applyProfile;
+
+    // 이만큼 왕복이 기록되기 전에는 추천하지 않는다.
+    private long minRoundTrips = 10;
+    private int maxBatchSize = 1000;
+}
@@ -0,0 +1,92 @@
+package jpabook.jpashop.batchfetch;
+
+import org.hibernate.HibernateException;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.BatchFetchQueue;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+
+/**
+ * 지연 로딩이 DB에 갈 때마다 이번 배치에 몇 개가 같이 실리는지 기록한다.
+ * 기본 리스너보다 앞에 등록돼서, 기본 리스너의 배치 로더가 쓸 키 목록을 BatchFetchQueue에서 똑같이 꺼내 세어 본다.
+ * (꺼내 보기만 하고 큐는 바꾸지 않는다)
+ */
+public class BatchFetchRecorder implements LoadEventListener, InitializeCollectionEventListener {
+
+    // Hibernate 이벤트 리스너 인터페이스가 Serializable이다.
+    private static final long serialVersionUID = 1L;
+
+    private final BatchFetchStats stats;
+
+    public BatchFetchRecorder(BatchFetchStats stats) {
+        this.stats = stats;
+    }
+
+    // 프록시 초기화 (order.getMember().getName() 같은)
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if (loadType != IMMEDIATE_LOAD) {
+            return;
+        }
+        EventSource session = event.getSession();
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(event.getEntityClassName());
+        BatchFetchAssociation association = BatchFetchAssociation.ofRootEntity(persister.getRootEntityName());
+        if (association == null) {
+            return;
+        }
+        PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        Serializable id = event.getEntityId();
+        // 앞선 배치에 이미 실려 왔으면 DB에 가지 않는다.
+        if (persistenceContext.getEntity(session.generateEntityKey(id, persister)) != null) {
+            return;
+        }
+        int batchSize = stats.get(association).getBatchSize();
+        if (batchSize <= 1) {
+            stats.record(association, 1);
+            return;
+        }
+        BatchFetchQueue queue = persistenceContext.getBatchFetchQueue();
+        stats.record(association, count(queue.getEntityBatch(persister, id, batchSize, persister.getEntityMode())));
+    }
+
+    // 컬렉션 초기화 (order.getOrderItems().size() 같은)
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        PersistentCollection collection = event.getCollection();
+        if (collection.wasInitialized()) {
+            return;
+        }
+        BatchFetchAssociation association = BatchFetchAssociation.ofCollectionRole(collection.getRole());
+        if (association == null) {
+            return;
+        }
+        int batchSize = stats.get(association).getBatchSize();
+        if (batchSize <= 1) {
+            stats.record(association, 1);
+            return;
+        }
+        EventSource session = event.getSession();
+        CollectionPersister persister = session.getFactory().getMetamodel().collectionPersister(collection.getRole());
+        BatchFetchQueue queue = session.getPersistenceContextInternal().getBatchFetchQueue();
+        stats.record(association, count(queue.getCollectionBatch(persister, collection.getKey(), batchSize)));
+    }
+
+    // 배치 크기만큼의 배열에 채운 만큼만 값이 있다.
+    private static int count(Serializable[] keys) {
+        int count = 0;
+        for (Serializable key : keys) {
+            if (key != null) {
+                count++;
+            }
+        }
+        return Math.max(count, 1);
+    }
+}
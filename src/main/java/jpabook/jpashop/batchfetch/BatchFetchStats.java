@@ -0,0 +1,68 @@
+package jpabook.jpashop.batchfetch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 연관관계별 배치 페치 기록.
+ * roundTrips: 지연 로딩으로 DB에 간 횟수, loaded: 그때 한 번에 가져온 키(엔티티/컬렉션) 수의 합
+ */
+public class BatchFetchStats {
+
+    private final Map<BatchFetchAssociation, Counter> counters = new EnumMap<>(BatchFetchAssociation.class);
+
+    public BatchFetchStats() {
+        for (BatchFetchAssociation association : BatchFetchAssociation.values()) {
+            counters.put(association, new Counter());
+        }
+    }
+
+    void setBatchSize(BatchFetchAssociation association, int batchSize) {
+        counters.get(association).batchSize = batchSize;
+    }
+
+    void record(BatchFetchAssociation association, int loaded) {
+        Counter counter = counters.get(association);
+        counter.roundTrips.increment();
+        counter.loaded.add(loaded);
+    }
+
+    public Snapshot get(BatchFetchAssociation association) {
+        Counter counter = counters.get(association);
+        return new Snapshot(counter.batchSize, counter.roundTrips.sum(), counter.loaded.sum());
+    }
+
+    public void reset() {
+        for (Counter counter : counters.values()) {
+            counter.roundTrips.reset();
+            counter.loaded.reset();
+        }
+    }
+
+    private static class Counter {
+        private volatile int batchSize;
+        private final LongAdder roundTrips = new LongAdder();
+        private final LongAdder loaded = new LongAdder();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final int batchSize;
+        private final long roundTrips;
+        private final long loaded;
+
+        public double getAveragePerTrip() {
+            return roundTrips == 0 ? 0 : (double) loaded / roundTrips;
+        }
+
+        // 배치 한 번을 얼마나 채웠나 (1이면 매번 batchSize만큼 가득)
+        public double getFillRatio() {
+            return roundTrips == 0 || batchSize <= 0 ? 0 : getAveragePerTrip() / batchSize;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package jpabook.jpashop.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 스프링 부트의 기본 OSIV 인터셉터 대신 ReadOnlyOpenEntityManagerInViewInterceptor를 등록한다.
+ * OpenEntityManagerInViewInterceptor 빈이 있으면 부트의 JpaWebConfiguration은 동작하지 않으므로 직접 등록해 주어야 한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.jpa", name = "open-in-view", havingValue = "true", matchIfMissing = true)
+public class JpaWebConfig implements WebMvcConfigurer {
+
+    @Bean
+    public ReadOnlyOpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new ReadOnlyOpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor());
+    }
+}
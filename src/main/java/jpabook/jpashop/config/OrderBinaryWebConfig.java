@@ -0,0 +1,21 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.api.codec.OrderBinaryHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 주문 목록 바이너리 응답(application/x-jpashop-orders)을 등록한다.
+ * 맨 뒤에 추가하므로 Accept 헤더로 요청했을 때만 쓰이고, 그 외에는 지금처럼 JSON으로 응답한다.
+ */
+@Configuration
+public class OrderBinaryWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new OrderBinaryHttpMessageConverter());
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.config;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * OSIV 인터셉터를 확장해서 GET /api/** 요청의 영속성 컨텍스트를 읽기 전용으로 연다.
+ *
+ * 서비스의 @Transactional(readOnly = true)는 이미 세션을 읽기 전용 + FlushMode.MANUAL로 바꿔준다. (HibernateJpaDialect)
+ * 그런데 OrderApiController 등은 트랜잭션 없이 리포지토리를 바로 호출하고, OSIV 덕분에 지연 로딩을 한다.
+ * 이때 로딩되는 엔티티는 변경 감지를 위해 스냅샷을 하나씩 더 들고 있게 된다. (메모리 2배)
+ * 조회만 하는 요청이므로 세션 기본값을 읽기 전용으로 바꿔 스냅샷을 만들지 않게 하고 flush도 하지 않는다.
+ *
+ * 주의: 이 요청 안에서 쓰기 트랜잭션을 열어도 엔티티 변경은 반영되지 않는다. GET API에서 쓰기를 하지 말자.
+ */
+public class ReadOnlyOpenEntityManagerInViewInterceptor extends OpenEntityManagerInViewInterceptor {
+
+    private static final String READ_ONLY_PATTERN = "/api/**";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public void preHandle(WebRequest request) {
+        super.preHandle(request);
+
+        if (!isReadOnlyRequest(request)) {
+            return;
+        }
+
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder == null) {
+            return;
+        }
+
+        Session session = holder.getEntityManager().unwrap(Session.class);
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+    }
+
+    private boolean isReadOnlyRequest(WebRequest request) {
+        if (!(request instanceof ServletWebRequest)) {
+            return false;
+        }
+        HttpServletRequest servletRequest = ((ServletWebRequest) request).getRequest();
+        String path = servletRequest.getRequestURI().substring(servletRequest.getContextPath().length());
+        return "GET".equals(servletRequest.getMethod()) && pathMatcher.match(READ_ONLY_PATTERN, path);
+    }
+}
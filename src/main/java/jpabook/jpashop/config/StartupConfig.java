@@ -0,0 +1,25 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.InitDb;
+import jpabook.jpashop.datasource.ReplicaLagMonitor;
+import jpabook.jpashop.outbox.OrderEventRelay;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * spring.main.lazy-initialization=true (prod)여도 시작할 때 만들어야 하는 빈.
+ * 아무도 주입받지 않고 만들어질 때 일을 시작하는 빈이라, 지연 초기화하면 영영 동작하지 않는다.
+ * - OrderEventRelay: outbox 이벤트를 주기적으로 내보낸다.
+ * - ReplicaLagMonitor: 읽기 복제본의 지연을 주기적으로 확인한다.
+ * - InitDb: jpashop.init-db.mode=startup이면 @PostConstruct에서 데이터를 넣는다.
+ * @Scheduled 빈, 이벤트 리스너, ApplicationRunner는 부트가 알아서 챙기므로 여기에 없어도 된다.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(OrderEventRelay.class, ReplicaLagMonitor.class, InitDb.class);
+    }
+}
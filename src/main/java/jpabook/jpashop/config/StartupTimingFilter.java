@@ -0,0 +1,54 @@
+package jpabook.jpashop.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 시작 시간과 첫 요청 처리 시간을 로그로 남긴다.
+ * 지연 초기화(prod)는 시작을 줄이는 대신 빈 생성과 JPA 초기화 일부를 첫 요청으로 미루므로 둘을 같이 봐야 한다.
+ * 첫 요청 시각은 JVM 시작부터 잰다. (요청을 받을 수 있게 된 뒤 첫 응답까지 걸린 시간)
+ */
+@Slf4j
+@Component
+public class StartupTimingFilter extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("startup: ready in {}ms (JVM uptime {}ms)", event.getTimeTaken().toMillis(), uptime());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!firstRequest.get()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequest.compareAndSet(true, false)) {
+                log.info("startup: first request {} {} took {}ms (JVM uptime {}ms)", request.getMethod(),
+                        request.getRequestURI(), (System.nanoTime() - start) / 1_000_000, uptime());
+            }
+        }
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
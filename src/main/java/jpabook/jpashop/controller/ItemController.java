@@ -1,7 +1,8 @@
 package jpabook.jpashop.controller;
 
 import jpabook.jpashop.domain.item.Book;
-import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.ItemCatalogDto;
+import jpabook.jpashop.service.ItemCatalogService;
 import jpabook.jpashop.service.ItemService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -18,6 +19,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemCatalogService itemCatalogService;
 
     @GetMapping("/items/new")
     public String createForm(Model model) {
@@ -40,9 +42,10 @@ public class ItemController {
         return "redirect:/items";
     }
 
+    // 매번 DB에서 Item 엔티티 전체를 읽지 않고 인메모리 카탈로그를 사용한다. (ItemCatalogService 참조)
     @GetMapping("/items")
     public String list(Model model) {
-        List<Item> items = itemService.findItems();
+        List<ItemCatalogDto> items = itemCatalogService.getItems();
         model.addAttribute("items", items);
         return "items/itemList";
     }
@@ -2,6 +2,7 @@ package jpabook.jpashop.controller;
 
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberListDto;
 import jpabook.jpashop.service.MemberService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -9,6 +10,7 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -17,6 +19,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int PAGE_SIZE = 20;
+
     private final MemberService memberService;
 
     @GetMapping("members/new")
@@ -44,11 +48,21 @@ public class MemberController {
         return "redirect:/";
     }
 
+    // 회원 전체가 아니라 한 페이지(PAGE_SIZE명)씩 id 순으로 보여준다. (keyset 페이징)
     @GetMapping("/members")
-    public String list(Model model) {
-        List<Member> members = memberService.findMembers();
+    public String list(@RequestParam(value = "after", required = false) Long after, Model model) {
+        List<MemberListDto> members = memberService.findMembersAfterId(after, PAGE_SIZE + 1);
+
+        Long next = null;
+        if (members.size() > PAGE_SIZE) {
+            members = members.subList(0, PAGE_SIZE);
+            next = members.get(PAGE_SIZE - 1).getId();
+        }
+
         // Member 객체를 그대로 전달하기 보다는 Dto로 변환해서 전달하는 것이 정석이다.
         model.addAttribute("members", members);
+        model.addAttribute("next", next);
+        model.addAttribute("total", memberService.countMembers());
         return "members/memberList";
     }
 }
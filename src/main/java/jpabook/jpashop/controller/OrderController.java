@@ -1,11 +1,7 @@
 package jpabook.jpashop.controller;
 
-import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
-import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.repository.OrderSearch;
-import jpabook.jpashop.service.ItemService;
-import jpabook.jpashop.service.MemberService;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -19,18 +15,11 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
-    private final MemberService memberService;
-    private final ItemService itemService;
 
+    // 회원, 상품 전체를 select box로 그리지 않는다.
+    // 화면에서 입력한 이름으로 /api/members/search, /api/items/search를 호출해서 고른다. (typeahead)
     @GetMapping("/order")
-    public String createForm(Model model) {
-
-        List<Member> members = memberService.findMembers();
-        List<Item> items = itemService.findItems();
-
-        model.addAttribute("members", members);
-        model.addAttribute("items", items);
-
+    public String createForm() {
         return "order/orderForm";
     }
 
@@ -0,0 +1,31 @@
+package jpabook.jpashop.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 레플리카별 마지막 지연 확인 결과.
+ * 아직 확인하지 않은 레플리카는 사용 가능한 것으로 본다.
+ */
+public class ReplicaHealth {
+
+    private final Map<String, Boolean> available = new ConcurrentHashMap<>();
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+
+    public boolean isAvailable(String replica) {
+        return available.getOrDefault(replica, true);
+    }
+
+    public void update(String replica, boolean isAvailable, Double lag) {
+        available.put(replica, isAvailable);
+        if (lag == null) {
+            lagSeconds.remove(replica);
+        } else {
+            lagSeconds.put(replica, lag);
+        }
+    }
+
+    public Double getLagSeconds(String replica) {
+        return lagSeconds.get(replica);
+    }
+}
@@ -0,0 +1,82 @@
+package jpabook.jpashop.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주기적으로 레플리카의 지연을 확인해서 ReplicaHealth에 반영한다.
+ * 지연이 maxLagSeconds를 넘거나 연결이 안되는 레플리카는 라우팅 대상에서 빠지고,
+ * 다시 따라잡으면 자동으로 복귀한다.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final Map<String, DataSource> replicas;
+    private final ReplicaHealth health;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, ReplicaHealth health,
+                             String lagQuery, double maxLagSeconds) {
+        this.replicas = replicas;
+        this.health = health;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalMillis) {
+        executor.scheduleWithFixedDelay(this::checkAll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void checkAll() {
+        replicas.forEach(this::check);
+    }
+
+    private void check(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!StringUtils.hasText(lagQuery)) {
+                health.update(key, connection.isValid(1), null);
+                return;
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                // 결과가 없거나 null이면 (예: 복제가 아직 시작되지 않음) 지연 0으로 본다.
+                double lag = rs.next() ? rs.getDouble(1) : 0;
+                boolean available = lag <= maxLagSeconds;
+                if (!available && health.isAvailable(key)) {
+                    log.warn("replica {} lag {}s exceeds {}s, routing reads to other pools", key, lag, maxLagSeconds);
+                }
+                health.update(key, available, lag);
+            }
+        } catch (SQLException | RuntimeException e) {
+            // RuntimeException(풀 종료, 드라이버 오류 등)도 잡아야 한다.
+            // 예외가 빠져나가면 ScheduledExecutorService가 이후 확인을 조용히 멈춘다.
+            if (health.isAvailable(key)) {
+                log.warn("replica {} is unavailable: {}", key, e.getMessage());
+            }
+            health.update(key, false, null);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
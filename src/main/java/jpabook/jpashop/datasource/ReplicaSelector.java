@@ -0,0 +1,34 @@
+package jpabook.jpashop.datasource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 정상(지연이 허용 범위 이내) 상태의 레플리카를 라운드 로빈으로 고른다.
+ */
+public class ReplicaSelector {
+
+    private final List<String> replicas;
+    private final ReplicaHealth health;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSelector(List<String> replicas, ReplicaHealth health) {
+        this.replicas = List.copyOf(replicas);
+        this.health = health;
+    }
+
+    /**
+     * @return 사용할 레플리카 key, 사용 가능한 레플리카가 없으면 null
+     */
+    public String select() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String replica = replicas.get((start + i) % size);
+            if (health.isAvailable(replica)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package jpabook.jpashop.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * readOnly 트랜잭션은 레플리카로, 나머지는 primary로 보낸다.
+ * 트랜잭션의 readOnly 속성은 커넥션을 얻은 뒤에 세팅되기 때문에
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다. (실제 쿼리 시점에 커넥션 획득)
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaSelector replicaSelector;
+    private final RoutingMetrics metrics;
+
+    public RoutingDataSource(ReplicaSelector replicaSelector, RoutingMetrics metrics) {
+        this.replicaSelector = replicaSelector;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            metrics.routed(PRIMARY);
+            return PRIMARY;
+        }
+
+        String replica = replicaSelector.select();
+        if (replica == null) {
+            // 사용 가능한 레플리카가 없으면 primary로 폴백
+            metrics.fallback();
+            metrics.routed(PRIMARY);
+            return PRIMARY;
+        }
+
+        metrics.routed(replica);
+        return replica;
+    }
+}
@@ -0,0 +1,117 @@
+package jpabook.jpashop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * jpashop.datasource.routing.enabled=true 일 때만 동작한다.
+ * 이 설정이 DataSource 빈을 직접 등록하므로 spring.datasource 자동 설정은 사용되지 않는다.
+ * 설정 예시는 application.yml 참조.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public RoutingMetrics routingMetrics() {
+        return new RoutingMetrics();
+    }
+
+    @Bean
+    public ReplicaHealth replicaHealth() {
+        return new ReplicaHealth();
+    }
+
+    @Bean(destroyMethod = "close")
+    public RoutingPools routingPools(RoutingDataSourceProperties properties) {
+        RoutingPools routingPools = new RoutingPools(createPool(RoutingDataSource.PRIMARY, properties.getPrimary(), false));
+        List<RoutingDataSourceProperties.Pool> replicas = properties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            routingPools.addReplica(key, createPool(key, replicas.get(i), true));
+        }
+        return routingPools;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(RoutingDataSourceProperties properties,
+                                               RoutingPools routingPools,
+                                               ReplicaHealth replicaHealth) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(routingPools.getReplicas(), replicaHealth,
+                properties.getLagQuery(), properties.getMaxLagSeconds());
+        if (!routingPools.getReplicas().isEmpty()) {
+            monitor.start(properties.getCheckIntervalMillis());
+        }
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutingPools routingPools,
+                                 ReplicaHealth replicaHealth,
+                                 RoutingMetrics routingMetrics) {
+        Map<Object, Object> targets = new LinkedHashMap<>(routingPools.getReplicas());
+        targets.put(RoutingDataSource.PRIMARY, routingPools.getPrimary());
+
+        ReplicaSelector selector = new ReplicaSelector(new ArrayList<>(routingPools.getReplicas().keySet()), replicaHealth);
+        RoutingDataSource routing = new RoutingDataSource(selector, routingMetrics);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(routingPools.getPrimary());
+        routing.afterPropertiesSet();
+
+        // 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻어야 readOnly 여부로 라우팅할 수 있다.
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // 스프링 부트가 등록하는 JpaTransactionManager 대신 사용한다. (RoutingJpaTransactionManager 참조)
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        RoutingJpaTransactionManager transactionManager = new RoutingJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    // 스프링은 JPA 트랜잭션이 끝나도 커넥션을 EntityManager에 붙여 둔다. (DELAYED_ACQUISITION_AND_HOLD)
+    // OSIV로 요청 내내 열려 있는 EntityManager가 readOnly 트랜잭션에서 레플리카 커넥션을 얻으면,
+    // 같은 요청의 다음 쓰기 트랜잭션도 그 커넥션을 그대로 써서 레플리카로 가 버린다.
+    // 트랜잭션이 끝날 때마다 커넥션을 반납해야 다음 트랜잭션이 다시 라우팅된다.
+    @Bean
+    public HibernatePropertiesCustomizer routingHibernatePropertiesCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private HikariDataSource createPool(String name, RoutingDataSourceProperties.Pool pool, boolean readOnly) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(pool.getUrl())
+                .username(pool.getUsername())
+                .password(pool.getPassword())
+                .driverClassName(pool.getDriverClassName())
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setReadOnly(readOnly);
+        dataSource.setRegisterMbeans(true);
+        return dataSource;
+    }
+}
@@ -0,0 +1,39 @@
+package jpabook.jpashop.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+
+    private Pool primary = new Pool();
+    private List<Pool> replicas = new ArrayList<>();
+
+    // 레플리카 지연 확인 쿼리. 지연 시간(초)을 숫자 하나로 반환해야 한다.
+    // 예) PostgreSQL: select extract(epoch from now() - pg_last_xact_replay_timestamp())
+    // 비워두면 지연 확인 없이 연결 가능 여부만 확인한다.
+    private String lagQuery;
+
+    // 이 값보다 지연이 크면 해당 레플리카로 라우팅하지 않는다.
+    private double maxLagSeconds = 5;
+
+    private long checkIntervalMillis = 5000;
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
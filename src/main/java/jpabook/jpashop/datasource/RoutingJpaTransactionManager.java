@@ -0,0 +1,28 @@
+package jpabook.jpashop.datasource;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 커넥션을 얻기 전에 트랜잭션의 readOnly 여부를 TransactionSynchronizationManager에 먼저 표시하는 JpaTransactionManager.
+ * JpaTransactionManager는 doBegin에서 하이버네이트 트랜잭션을 시작하고, readOnly 표시는 그 다음에 한다.
+ * 원래는 LazyConnectionDataSourceProxy가 실제 커넥션 획득을 첫 쿼리까지 미뤄 주지만,
+ * p6spy가 커넥션을 감싸면서 getMetaData()를 호출하는 순간 실제 커넥션을 얻기 때문에 RoutingDataSource는 항상 primary를 고르게 된다.
+ */
+public class RoutingJpaTransactionManager extends JpaTransactionManager {
+
+    // PlatformTransactionManager 구현(AbstractPlatformTransactionManager)이 Serializable이다.
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package jpabook.jpashop.datasource;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 풀(primary, replica-N)별 커넥션 라우팅 횟수와 레플리카 폴백 횟수.
+ * 커넥션 풀 자체의 지표(active, idle 등)는 풀 이름별로 등록되는 Hikari MBean으로 확인한다.
+ */
+public class RoutingMetrics {
+
+    private final Map<String, LongAdder> routed = new ConcurrentHashMap<>();
+    private final LongAdder fallbacks = new LongAdder();
+
+    void routed(String key) {
+        routed.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    void fallback() {
+        fallbacks.increment();
+    }
+
+    public Map<String, Long> getRoutedCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        routed.forEach((key, count) -> result.put(key, count.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+}
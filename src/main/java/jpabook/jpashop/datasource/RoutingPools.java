@@ -0,0 +1,41 @@
+package jpabook.jpashop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * primary와 key(replica-0, replica-1, ...)별 레플리카 커넥션 풀.
+ * 각 풀을 DataSource 빈으로 등록하지 않고 한 번 감싸서 등록했다.
+ * (DataSource 빈이 여러 개가 되면 p6spy 등 DataSource 빈을 대상으로 하는 설정이 모든 풀에 적용된다.)
+ */
+public class RoutingPools implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+
+    RoutingPools(HikariDataSource primary) {
+        this.primary = primary;
+    }
+
+    void addReplica(String key, HikariDataSource dataSource) {
+        replicas.put(key, dataSource);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,28 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 주문, 회원, 상품의 변경 횟수 (aggregate마다 row 하나)
+ * 변경하는 트랜잭션이 커밋 직전에 같은 트랜잭션에서 올린다. (AggregateVersions 참조)
+ */
+@Entity
+@Table(name = "aggregate_version")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AggregateVersion {
+
+    @Id
+    @Column(length = 16)
+    private String aggregate;
+
+    private long version;
+
+    public AggregateVersion(String aggregate) {
+        this.aggregate = aggregate;
+    }
+}
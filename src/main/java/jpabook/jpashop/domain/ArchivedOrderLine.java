@@ -0,0 +1,53 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 아카이브된 주문 상품 한 줄.
+ * 끝난(취소 또는 배송 완료) 오래된 주문을 orders, order_item, delivery에서 이 테이블로 옮긴다. (OrderArchiveService)
+ * 주문 화면과 주문 API가 읽는 테이블에는 최근 주문만 남으므로, 조회 비용이 전체 이력이 아니라 최근 주문 수를 따라간다.
+ * 조인 없이 읽을 수 있도록 회원, 상품, 배송 정보를 펼쳐서 저장한다.
+ */
+@Entity
+@Table(name = "archived_order_line",
+        indexes = {
+                @Index(name = "idx_archived_order_line_order", columnList = "order_id"),
+                @Index(name = "idx_archived_order_line_order_date", columnList = "order_date")
+        })
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedOrderLine {
+
+    // 원래 order_item의 id를 그대로 쓴다.
+    @Id
+    @Column(name = "order_item_id")
+    private Long orderItemId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private Long memberId;
+    private String memberName;
+
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus deliveryStatus;
+    private String city;
+    private String street;
+    private String zipcode;
+
+    private Long itemId;
+    private String itemName;
+    private int orderPrice;
+    private int orderCount;
+}
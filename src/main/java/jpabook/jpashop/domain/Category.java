@@ -34,10 +34,50 @@ public class Category {
     @OneToMany(mappedBy = "parent")
     private List<Category> child = new ArrayList<>();
 
+    // 계층 인덱스 - 나(자기 자신 포함)의 모든 조상과의 관계
+    @OneToMany(mappedBy = "descendant", cascade = CascadeType.ALL)
+    private List<CategoryClosure> ancestors = new ArrayList<>();
+
+    public Category() {
+        // DB에서 로딩할 때는 하이버네이트가 ancestors를 DB 값으로 다시 세팅한다.
+        ancestors.add(new CategoryClosure(this, this, 0));
+    }
+
     // 연관관계 메서드 //
     public void addChildCategory(Category child) {
+        // 다른 부모 밑으로 옮기려면 기존 계층 인덱스를 지워야 하는데, 아직 지원하지 않는다.
+        if (child.getParent() != null) {
+            throw new IllegalStateException("이미 상위 카테고리가 있는 카테고리입니다.");
+        }
+        // 나 자신이나 내 조상을 하위로 붙이면 계층에 순환이 생긴다. 상태를 바꾸기 전에 막는다.
+        if (isSelfOrAncestor(child)) {
+            throw new IllegalStateException("자기 자신이나 상위 카테고리를 하위 카테고리로 추가할 수 없습니다.");
+        }
         this.child.add(child);
         child.setParent(this);
+        child.linkToAncestors(this.ancestors, 1);
+    }
+
+    // ancestors의 조상은 지연 로딩 프록시일 수 있으므로 식별자로도 비교한다.
+    private boolean isSelfOrAncestor(Category category) {
+        for (CategoryClosure up : ancestors) {
+            Category ancestor = up.getAncestor();
+            if (ancestor == category
+                    || (category.getId() != null && category.getId().equals(ancestor.getId()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 나와 내 하위 카테고리 전체를 upper(부모의 조상 목록)의 자손으로 등록한다.
+    private void linkToAncestors(List<CategoryClosure> upper, int distance) {
+        for (CategoryClosure up : upper) {
+            ancestors.add(new CategoryClosure(up.getAncestor(), this, up.getDepth() + distance));
+        }
+        for (Category category : child) {
+            category.linkToAncestors(upper, distance + 1);
+        }
     }
 
 }
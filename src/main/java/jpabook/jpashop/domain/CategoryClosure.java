@@ -0,0 +1,46 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 카테고리 계층 인덱스 (closure table)
+ * 모든 (조상, 자손) 쌍을 depth와 함께 한 row씩 저장한다. 자기 자신도 depth 0으로 포함한다.
+ * parent/child 인접 리스트만으로는 하위 트리 전체를 구하려면 레벨마다 쿼리가 나가지만,
+ * 이 테이블이 있으면 "하위 트리의 모든 상품", "breadcrumb" 모두 쿼리 한 번으로 끝난다.
+ * Category.addChildCategory에서 관리한다.
+ */
+@Entity
+@Table(name = "category_closure",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_category_closure_ancestor_descendant",
+                columnNames = {"ancestor_id", "descendant_id"}),
+        indexes = @Index(name = "idx_category_closure_descendant", columnList = "descendant_id, depth"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CategoryClosure {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "category_closure_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id")
+    private Category ancestor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id")
+    private Category descendant;
+
+    private int depth;
+
+    CategoryClosure(Category ancestor, Category descendant, int depth) {
+        this.ancestor = ancestor;
+        this.descendant = descendant;
+        this.depth = depth;
+    }
+}
@@ -1,6 +1,7 @@
 package jpabook.jpashop.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,8 +9,10 @@ import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
+@Table(indexes = @Index(name = "idx_member_name_key", columnList = "name_key"))
 @Getter @Setter
 public class Member {
 
@@ -21,10 +24,25 @@ public class Member {
     @Column(unique = true)
     private String name;
 
+    // 대소문자를 무시한 이름 검색용 (소문자로 바꾼 name). 저장, 수정할 때 name에서 만든다.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key")
+    private String nameKey;
+
     @Embedded
     private Address address;
 
     //@JsonIgnore // entity와 presentation 로직과 연결되면 안된다. 둘은 분리되어야 한다.
     @OneToMany(mappedBy = "member")
     private List<Order> orders = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    private void updateNameKey() {
+        nameKey = nameKey(name);
+    }
+
+    public static String nameKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
 }
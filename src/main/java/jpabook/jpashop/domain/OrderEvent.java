@@ -0,0 +1,68 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 변경 이벤트 (transactional outbox)
+ * 주문을 바꾸는 트랜잭션 안에서 같이 insert 하므로, 주문이 커밋되면 이벤트도 반드시 남고 롤백되면 같이 사라진다.
+ * 외부 시스템은 /api/order-events로 피드 위치(feedPosition) 순서대로 읽어가거나, OrderEventRelay가 OrderEventPublisher로 내보낸다.
+ * Order와 연관관계를 맺지 않고 id만 저장한다. (주문이 아카이브되어도 이벤트는 남는다)
+ */
+@Entity
+@Table(name = "order_event",
+        indexes = {
+                @Index(name = "idx_order_event_published", columnList = "published_at, feed_position"),
+                @Index(name = "idx_order_event_feed_position", columnList = "feed_position, order_event_id")
+        })
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderEvent {
+
+    @Id @GeneratedValue
+    @Column(name = "order_event_id")
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderEventType type;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 피드 위치. 커밋된 이벤트에 OrderEventRelay가 1부터 차례로 매긴다. null이면 아직 매기지 않았다.
+    // id는 insert 순서라서 먼저 insert 했지만 늦게 커밋된 이벤트는 id 커서로 읽으면 건너뛰게 된다.
+    // 피드 위치는 커밋된 것만 보고 매기므로 이 위치를 커서로 쓰면 빠지는 이벤트가 없다.
+    @Column(name = "feed_position", unique = true)
+    private Long feedPosition;
+
+    // OrderEventRelay가 내보낸 시각. null이면 아직 내보내지 않았다.
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    public OrderEvent(Long orderId, Long memberId, OrderEventType type) {
+        this.orderId = orderId;
+        this.memberId = memberId;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public void assignFeedPosition(long feedPosition) {
+        this.feedPosition = feedPosition;
+    }
+
+    // 생성 메서드 //
+    public static OrderEvent of(Order order, OrderEventType type) {
+        return new OrderEvent(order.getId(), order.getMember().getId(), type);
+    }
+}
@@ -0,0 +1,9 @@
+package jpabook.jpashop.domain;
+
+/**
+ * 매출 통계 집계 기준.
+ * SalesStat.keyId는 ITEM이면 상품 id, MEMBER면 회원 id, DAY면 주문일의 epoch day다.
+ */
+public enum SalesDimension {
+    ITEM, MEMBER, DAY
+}
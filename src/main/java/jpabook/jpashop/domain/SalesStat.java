@@ -0,0 +1,46 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 미리 집계해 둔 매출 통계 (상품별, 회원별, 일별)
+ * 주문, 취소가 커밋될 때마다 SalesStatService가 증감한다. 대시보드는 주문을 훑지 않고 이 row만 읽는다.
+ * 취소된 주문은 포함하지 않는다.
+ */
+@Entity
+@Table(name = "sales_stat",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_sales_stat_dimension_key",
+                columnNames = {"dimension", "key_id"}),
+        indexes = @Index(name = "idx_sales_stat_revenue", columnList = "dimension, revenue"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SalesStat {
+
+    @Id @GeneratedValue
+    @Column(name = "sales_stat_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SalesDimension dimension;
+
+    @Column(name = "key_id", nullable = false)
+    private Long keyId;
+
+    private long orderCount;    // 주문 수
+    private long quantity;      // 판매 수량
+    private long revenue;       // 매출 (orderPrice * count 합)
+
+    public SalesStat(SalesDimension dimension, Long keyId, long orderCount, long quantity, long revenue) {
+        this.dimension = dimension;
+        this.keyId = keyId;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+}
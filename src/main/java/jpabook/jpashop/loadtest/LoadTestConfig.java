@@ -0,0 +1,56 @@
+package jpabook.jpashop.loadtest;
+
+import jpabook.jpashop.service.AggregateVersions;
+import jpabook.jpashop.service.ItemCatalogService;
+import jpabook.jpashop.service.MemberCountCache;
+import jpabook.jpashop.service.MemberNameFilter;
+import jpabook.jpashop.service.SalesStatService;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * jpashop.load-test.enabled=true 일 때만 데이터 생성기와 /api/load-test/** 를 켠다.
+ * 트래픽은 ScenarioRunner로 보낸다. (./gradlew loadTest)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.load-test", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfig {
+
+    private final LoadTestProperties properties;
+
+    public LoadTestConfig(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public LoadTestDataRepository loadTestDataRepository(JdbcTemplate jdbcTemplate) {
+        return new LoadTestDataRepository(jdbcTemplate);
+    }
+
+    @Bean
+    public LoadTestDataGenerator loadTestDataGenerator(LoadTestDataRepository loadTestDataRepository,
+                                                       PlatformTransactionManager transactionManager,
+                                                       SalesStatService salesStatService,
+                                                       ItemCatalogService itemCatalogService,
+                                                       MemberCountCache memberCountCache,
+                                                       MemberNameFilter memberNameFilter,
+                                                       AggregateVersions aggregateVersions) {
+        return new LoadTestDataGenerator(loadTestDataRepository, properties, transactionManager,
+                salesStatService, itemCatalogService, memberCountCache, memberNameFilter, aggregateVersions);
+    }
+
+    @Bean
+    public ApplicationRunner loadTestDataRunner(LoadTestDataGenerator loadTestDataGenerator) {
+        return args -> {
+            if (properties.isGenerateOnStartup()) {
+                loadTestDataGenerator.generate();
+            }
+        };
+    }
+}
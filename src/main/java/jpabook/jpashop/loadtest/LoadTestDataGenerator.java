@@ -0,0 +1,304 @@
+package jpabook.jpashop.loadtest;
+
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.service.AggregateVersions;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
+import jpabook.jpashop.service.ItemCatalogService;
+import jpabook.jpashop.service.MemberCountCache;
+import jpabook.jpashop.service.MemberNameFilter;
+import jpabook.jpashop.service.SalesStatService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 부하 테스트용 회원, 상품(Book/Album/Movie), 카테고리, 주문을 만든다. 크기와 분포는 LoadTestProperties 참조.
+ *
+ * - 상품 인기도는 Zipf 분포다. 인기 순위와 상품 id는 섞어서 인기 상품이 id 앞쪽에 몰리지 않게 한다.
+ * - 주문 한 건에 여러 상품(서로 다른 상품)이 담기고, 수량도 가끔 2개 이상이다.
+ * - 주문 chunkSize건마다 트랜잭션 하나로 JDBC batch insert 한다.
+ * - 같은 seed면 같은 데이터가 나온다. (id는 그때 시퀀스 값에 따라 다르다)
+ *
+ * 서비스를 거치지 않으므로 주문 이벤트는 만들지 않고 (InitDb와 같다),
+ * 매출 통계, 상품 카탈로그, 회원 수 캐시, ETag 버전은 다 넣은 뒤에 직접 맞춘다.
+ * 회원 이름 필터(MemberNameFilter)에는 회원 묶음을 커밋할 때마다 이름을 등록한다. (MemberImportService와 같다)
+ */
+@Slf4j
+public class LoadTestDataGenerator {
+
+    private static final String[] CITIES = {"서울", "부산", "인천", "대구", "대전", "광주", "울산", "수원", "창원", "진주"};
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    // 이보다 오래된 주문은 배송 완료
+    private static final int DELIVERY_DAYS = 3;
+
+    private final LoadTestDataRepository repository;
+    private final LoadTestProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesStatService salesStatService;
+    private final ItemCatalogService itemCatalogService;
+    private final MemberCountCache memberCountCache;
+    private final MemberNameFilter memberNameFilter;
+    private final AggregateVersions aggregateVersions;
+
+    public LoadTestDataGenerator(LoadTestDataRepository repository, LoadTestProperties properties,
+                                 PlatformTransactionManager transactionManager, SalesStatService salesStatService,
+                                 ItemCatalogService itemCatalogService, MemberCountCache memberCountCache,
+                                 MemberNameFilter memberNameFilter, AggregateVersions aggregateVersions) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.salesStatService = salesStatService;
+        this.itemCatalogService = itemCatalogService;
+        this.memberCountCache = memberCountCache;
+        this.memberNameFilter = memberNameFilter;
+        this.aggregateVersions = aggregateVersions;
+    }
+
+    public synchronized LoadTestDataResult generate() {
+        long start = System.currentTimeMillis();
+        Random random = new Random(properties.getSeed());
+
+        long firstMemberId = generateMembers();
+        long firstItemId = repository.reserveIds(properties.getItems());
+        int[] prices = generateItems(firstItemId, random);
+        int categories = generateCategories(firstItemId, random);
+        long lines = generateOrders(firstMemberId, firstItemId, prices, random);
+
+        salesStatService.rebuild();
+        itemCatalogService.rebuild();
+        memberCountCache.add(properties.getMembers());
+        aggregateVersions.bump(Aggregate.ORDER, Aggregate.MEMBER, Aggregate.ITEM);
+
+        LoadTestDataResult result = new LoadTestDataResult(properties.getMembers(), properties.getItems(), categories,
+                properties.getOrders(), lines, System.currentTimeMillis() - start);
+        log.info("load test data: members={}, items={}, categories={}, orders={}, lines={}, {}ms",
+                result.getMembers(), result.getItems(), result.getCategories(), result.getOrders(),
+                result.getOrderLines(), result.getElapsedMillis());
+        return result;
+    }
+
+    private long generateMembers() {
+        int total = properties.getMembers();
+        long firstId = repository.reserveIds(total);
+        for (int from = 0; from < total; from += properties.getChunkSize()) {
+            int to = Math.min(from + properties.getChunkSize(), total);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            List<String> names = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                long id = firstId + i;
+                String name = "member" + id;
+                rows.add(new Object[]{id, name, Member.nameKey(name), city(i), street(i), zipcode(i)});
+                names.add(name);
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.insertMembers(rows));
+            memberNameFilter.addAll(names);
+        }
+        log.info("load test data: {} members", total);
+        return firstId;
+    }
+
+    // 상품 가격 (index = 상품 id - firstId)
+    private int[] generateItems(long firstId, Random random) {
+        int total = properties.getItems();
+        int[] prices = new int[total];
+        for (int from = 0; from < total; from += properties.getChunkSize()) {
+            int to = Math.min(from + properties.getChunkSize(), total);
+            List<Object[]> books = new ArrayList<>();
+            List<Object[]> albums = new ArrayList<>();
+            List<Object[]> movies = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                long id = firstId + i;
+                int price = (10 + random.nextInt(491)) * 100;
+                prices[i] = price;
+                double type = random.nextDouble();
+                if (type < properties.getBookRatio()) {
+                    books.add(new Object[]{id, "Book " + id, price, properties.getStockQuantity(),
+                            "author" + random.nextInt(10_000), String.format("978%010d", id)});
+                } else if (type < properties.getBookRatio() + properties.getAlbumRatio()) {
+                    albums.add(new Object[]{id, "Album " + id, price, properties.getStockQuantity(),
+                            "artist" + random.nextInt(5_000), null});
+                } else {
+                    movies.add(new Object[]{id, "Movie " + id, price, properties.getStockQuantity(),
+                            "director" + random.nextInt(2_000), "actor" + random.nextInt(20_000)});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.insertBooks(books);
+                repository.insertAlbums(albums);
+                repository.insertMovies(movies);
+            });
+        }
+        log.info("load test data: {} items", total);
+        return prices;
+    }
+
+    // 최상위 카테고리 아래에 하위 카테고리, 상품은 하위 카테고리 하나에 (하위가 없으면 최상위에)
+    private int generateCategories(long firstItemId, Random random) {
+        int roots = properties.getRootCategories();
+        int children = properties.getChildCategories();
+        if (roots <= 0) {
+            return 0;
+        }
+        int total = roots * (1 + children);
+        long firstId = repository.reserveIds(total + roots * (1 + 2 * children));
+        long closureId = firstId + total;
+
+        List<Object[]> categories = new ArrayList<>(total);
+        List<Object[]> closures = new ArrayList<>();
+        List<Long> leaves = new ArrayList<>();
+        long id = firstId;
+        for (int r = 0; r < roots; r++) {
+            long rootId = id++;
+            categories.add(new Object[]{rootId, "Category " + r, null});
+            closures.add(new Object[]{closureId++, rootId, rootId, 0});
+            if (children == 0) {
+                leaves.add(rootId);
+            }
+            for (int c = 0; c < children; c++) {
+                long childId = id++;
+                categories.add(new Object[]{childId, "Category " + r + "-" + c, rootId});
+                closures.add(new Object[]{closureId++, childId, childId, 0});
+                closures.add(new Object[]{closureId++, rootId, childId, 1});
+                leaves.add(childId);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.insertCategories(categories);
+            repository.insertCategoryClosures(closures);
+        });
+
+        int items = properties.getItems();
+        for (int from = 0; from < items; from += properties.getChunkSize()) {
+            int to = Math.min(from + properties.getChunkSize(), items);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                rows.add(new Object[]{leaves.get(random.nextInt(leaves.size())), firstItemId + i});
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.insertCategoryItems(rows));
+        }
+        log.info("load test data: {} categories", total);
+        return total;
+    }
+
+    private long generateOrders(long firstMemberId, long firstItemId, int[] prices, Random random) {
+        int total = properties.getOrders();
+        int members = properties.getMembers();
+        if (total <= 0 || members <= 0 || prices.length == 0) {
+            return 0;
+        }
+        ZipfDistribution popularity = new ZipfDistribution(prices.length, properties.getItemSkew());
+        int[] itemByRank = shuffledIndexes(prices.length, random);
+        int maxLines = Math.max(1, Math.min(properties.getMaxLinesPerOrder(), prices.length));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        long lines = 0;
+        for (int from = 0; from < total; from += properties.getChunkSize()) {
+            int size = Math.min(properties.getChunkSize(), total - from);
+
+            // 줄 수를 먼저 정해야 id를 딱 맞게 예약할 수 있다.
+            int[] lineCounts = new int[size];
+            int chunkLines = 0;
+            for (int k = 0; k < size; k++) {
+                int count = 1;
+                while (count < maxLines && random.nextDouble() < properties.getExtraLineRatio()) {
+                    count++;
+                }
+                lineCounts[k] = count;
+                chunkLines += count;
+            }
+            long orderId = repository.reserveIds(size * 2 + chunkLines);
+            long deliveryId = orderId + size;
+            long lineId = deliveryId + size;
+
+            List<Object[]> deliveries = new ArrayList<>(size);
+            List<Object[]> orders = new ArrayList<>(size);
+            List<Object[]> orderItems = new ArrayList<>(chunkLines);
+            int[] chosen = new int[maxLines];
+            for (int k = 0; k < size; k++, orderId++, deliveryId++) {
+                int member = random.nextInt(members);
+                int ageSeconds = random.nextInt(Math.max(properties.getDays(), 1) * SECONDS_PER_DAY);
+                boolean canceled = random.nextDouble() < properties.getCancelRatio();
+                DeliveryStatus deliveryStatus = !canceled && ageSeconds > DELIVERY_DAYS * SECONDS_PER_DAY
+                        ? DeliveryStatus.COMP : DeliveryStatus.READY;
+
+                deliveries.add(new Object[]{deliveryId, city(member), street(member), zipcode(member), deliveryStatus.name()});
+                orders.add(new Object[]{orderId, firstMemberId + member, deliveryId,
+                        Timestamp.valueOf(now.minusSeconds(ageSeconds)),
+                        (canceled ? OrderStatus.CANCEL : OrderStatus.ORDER).name()});
+                for (int l = 0; l < lineCounts[k]; l++) {
+                    int item = pickDistinct(popularity, itemByRank, chosen, l, random);
+                    chosen[l] = item;
+                    int count = random.nextDouble() < 0.7 ? 1 : 2 + random.nextInt(3);
+                    orderItems.add(new Object[]{lineId++, orderId, firstItemId + item, prices[item], count});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.insertDeliveries(deliveries);
+                repository.insertOrders(orders);
+                repository.insertOrderItems(orderItems);
+            });
+            lines += chunkLines;
+
+            if ((from / properties.getChunkSize()) % 20 == 19) {
+                log.info("load test data: {} / {} orders", from + size, total);
+            }
+        }
+        return lines;
+    }
+
+    // 같은 주문에 이미 담은 상품이면 다시 뽑는다. (인기 상품이 몰려 있으므로 몇 번이면 된다)
+    private int pickDistinct(ZipfDistribution popularity, int[] itemByRank, int[] chosen, int count, Random random) {
+        int item = itemByRank[popularity.sample(random)];
+        for (int attempt = 0; attempt < 100 && contains(chosen, count, item); attempt++) {
+            item = itemByRank[popularity.sample(random)];
+        }
+        while (contains(chosen, count, item)) {
+            item = (item + 1) % itemByRank.length;
+        }
+        return item;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] shuffledIndexes(int n, Random random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        return indexes;
+    }
+
+    // 회원 주소는 회원 순번으로 정한다. (배송지도 같은 값을 쓴다)
+    private static String city(int member) {
+        return CITIES[member % CITIES.length];
+    }
+
+    private static String street(int member) {
+        return (member % 100 + 1) + "길";
+    }
+
+    private static String zipcode(int member) {
+        return String.format("%05d", member % 100_000);
+    }
+}
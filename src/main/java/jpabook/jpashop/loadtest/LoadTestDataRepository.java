@@ -0,0 +1,92 @@
+package jpabook.jpashop.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 부하 테스트 데이터 JDBC batch insert.
+ * 엔티티를 거치지 않으므로 id는 reserveIds()로 hibernate_sequence에서 한꺼번에 떼어 온다.
+ * (@GeneratedValue 시퀀스는 increment 1이라 persist 하나마다 시퀀스 조회가 한 번씩 나간다)
+ */
+@RequiredArgsConstructor
+public class LoadTestDataRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * count개의 연속된 id를 예약하고 첫 id를 돌려준다.
+     * 조회와 restart 사이에 다른 insert가 끼어들면 id가 겹치므로, 쓰기 트래픽이 없을 때만 쓴다.
+     */
+    public long reserveIds(int count) {
+        Long first = jdbcTemplate.queryForObject("select next value for hibernate_sequence", Long.class);
+        jdbcTemplate.execute("alter sequence hibernate_sequence restart with " + (first + count));
+        return first;
+    }
+
+    // {member_id, name, name_key, city, street, zipcode}
+    public void insertMembers(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into member (member_id, name, name_key, city, street, zipcode) values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // {item_id, name, price, stock_quantity, author, isbn}
+    public void insertBooks(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into item (dtype, item_id, name, price, stock_quantity, author, isbn)" +
+                " values ('B', ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // {item_id, name, price, stock_quantity, artist, etc}
+    public void insertAlbums(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into item (dtype, item_id, name, price, stock_quantity, artist, etc)" +
+                " values ('A', ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // {item_id, name, price, stock_quantity, director, actor}
+    public void insertMovies(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into item (dtype, item_id, name, price, stock_quantity, director, actor)" +
+                " values ('M', ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // {category_id, name, parent_id(null이면 최상위)}
+    public void insertCategories(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into category (category_id, name, parent_id) values (?, ?, ?)",
+                rows, new int[]{Types.BIGINT, Types.VARCHAR, Types.BIGINT});
+    }
+
+    // {category_closure_id, ancestor_id, descendant_id, depth}
+    public void insertCategoryClosures(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into category_closure (category_closure_id, ancestor_id, descendant_id, depth)" +
+                " values (?, ?, ?, ?)", rows);
+    }
+
+    // {category_id, item_id}
+    public void insertCategoryItems(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into category_item (category_id, item_id) values (?, ?)", rows);
+    }
+
+    // {delivery_id, city, street, zipcode, status}
+    public void insertDeliveries(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    // {order_id, member_id, delivery_id, order_date, status}
+    public void insertOrders(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into orders (order_id, member_id, delivery_id, order_date, status) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    // {order_item_id, order_id, item_id, order_price, count}
+    public void insertOrderItems(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into order_item (order_item_id, order_id, item_id, order_price, count) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    // id가 큰(최근에 만든) 순으로 limit개
+    public List<Long> findRecentMemberIds(int limit) {
+        return jdbcTemplate.queryForList("select member_id from member order by member_id desc limit ?", Long.class, limit);
+    }
+
+    public List<Long> findRecentItemIds(int limit) {
+        return jdbcTemplate.queryForList("select item_id from item order by item_id desc limit ?", Long.class, limit);
+    }
+}
@@ -0,0 +1,16 @@
+package jpabook.jpashop.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LoadTestDataResult {
+
+    private final int members;
+    private final int items;
+    private final int categories;
+    private final int orders;
+    private final long orderLines;
+    private final long elapsedMillis;
+}
@@ -0,0 +1,44 @@
+package jpabook.jpashop.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jpashop.load-test")
+public class LoadTestProperties {
+
+    // 부하 테스트용 데이터 생성기와 /api/load-test/** 엔드포인트
+    private boolean enabled;
+
+    // 시작할 때 바로 생성한다. (아니면 POST /api/load-test/data)
+    private boolean generateOnStartup;
+
+    private int members = 1_000_000;
+    private int items = 100_000;
+    private int orders = 1_000_000;
+
+    // 상품 종류 비율 (나머지는 Movie)
+    private double bookRatio = 0.6;
+    private double albumRatio = 0.2;
+    private int stockQuantity = 1_000_000;
+
+    // 카테고리는 rootCategories * (1 + childCategories)개, 상품은 하위 카테고리 하나에 속한다.
+    private int rootCategories = 10;
+    private int childCategories = 10;
+
+    // 상품 인기도는 Zipf 분포 (1에 가까울수록 상위 몇 개에 주문이 몰린다)
+    private double itemSkew = 1.0;
+    // 주문 한 건의 상품 종류 수: 1 + 기하분포 (다음 상품을 더 담을 확률), 최대 maxLinesPerOrder
+    private double extraLineRatio = 0.45;
+    private int maxLinesPerOrder = 5;
+
+    private double cancelRatio = 0.1;
+    // 주문일은 최근 days일에 고르게 흩어진다.
+    private int days = 365;
+
+    // 주문 chunkSize건마다 트랜잭션 하나, JDBC batch 하나
+    private int chunkSize = 5000;
+    private long seed = 42;
+}
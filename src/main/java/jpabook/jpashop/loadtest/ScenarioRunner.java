@@ -0,0 +1,335 @@
+package jpabook.jpashop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.support.collection.LongList;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 실행 중인 서버에 읽기/쓰기가 섞인 트래픽을 보내고 시나리오별 처리량과 응답 시간 백분위를 출력한다.
+ * 서버는 jpashop.load-test.enabled=true 로 떠 있어야 한다. (요청에 넣을 회원, 상품 id를 /api/load-test/ids로 얻는다)
+ *
+ * ./gradlew loadTest -PloadTestArgs="--base-url=http://localhost:8080 --threads=16 --duration=60 --warmup=10"
+ *
+ * 스레드마다 다른 X-Client-Id를 보내지만 서버 로그에서 구분하는 용도일 뿐이다.
+ * 수락 제어는 요청 IP별로 토큰 버킷을 나누므로 한 대에서 보내는 모든 스레드가 버킷 하나를 같이 쓴다.
+ * 처리량을 재려면 서버를 jpashop.admission.enabled=false로 띄우거나 bucket-capacity, refill-per-second를 키운다.
+ * 429, 503 응답은 오류와 따로 rejected로 센다.
+ */
+public class ScenarioRunner {
+
+    enum Scenario {
+        // 읽기: 페이징되는 주문 목록 (전체를 읽는 v1, v2, v4 등은 데이터가 많으면 의미가 없으므로 뺀다)
+        ORDERS_FETCH_JOIN(20) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.get("/api/v3.1/orders?offset=" + random.nextInt(runner.maxOffset + 1) + "&limit=20");
+            }
+        },
+        ORDERS_BATCH_FETCH(10) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.get("/api/v3.2/orders?offset=" + random.nextInt(runner.maxOffset + 1) + "&limit=20");
+            }
+        },
+        // 읽기: 주문 화면 typeahead
+        MEMBER_SEARCH(15) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.get("/api/members/search?prefix=" + prefix("member", runner.members.pick(random)) + "&limit=10");
+            }
+        },
+        ITEM_SEARCH(15) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                String type = ITEM_TYPES[random.nextInt(ITEM_TYPES.length)];
+                return runner.get("/api/items/search?prefix=" + prefix(type + "%20", runner.items.pick(random)) + "&limit=10");
+            }
+        },
+        // 읽기: 통계
+        ITEM_SALES(10) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.get("/api/stats/sales/ITEM/" + runner.items.pick(random));
+            }
+        },
+        TOP_SALES(5) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.get("/api/stats/sales/ITEM?limit=10");
+            }
+        },
+        TOP_ITEMS(5) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.get("/api/analytics/top-items?limit=10");
+            }
+        },
+        // 쓰기: 주문 (인기 상품에 몰린다), 회원 가입
+        PLACE_ORDER(12) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                String form = "memberId=" + runner.members.pick(random) + "&itemId=" + runner.items.pick(random) + "&count=1";
+                return runner.builder("/order")
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form));
+            }
+        },
+        JOIN_MEMBER(3) {
+            HttpRequest.Builder request(ScenarioRunner runner, Random random) {
+                return runner.builder("/api/v2/members")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"lt-" + UUID.randomUUID() + "\"}"));
+            }
+        };
+
+        private static final String[] ITEM_TYPES = {"Book", "Album", "Movie"};
+
+        private final int weight;
+
+        Scenario(int weight) {
+            this.weight = weight;
+        }
+
+        abstract HttpRequest.Builder request(ScenarioRunner runner, Random random);
+
+        // id 앞 네 자리로 prefix 검색
+        private static String prefix(String head, long id) {
+            String digits = Long.toString(id);
+            return head + digits.substring(0, Math.min(4, digits.length()));
+        }
+    }
+
+    private final String baseUrl;
+    private final int threads;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int maxOffset;
+    private final long seed;
+    private final HttpClient client;
+
+    private IdPool members;
+    private IdPool items;
+
+    ScenarioRunner(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        this.maxOffset = Integer.parseInt(options.getOrDefault("max-offset", "1000"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new ScenarioRunner(options).run();
+    }
+
+    void run() throws Exception {
+        loadIds();
+
+        Scenario[] table = weightedTable();
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(durationSeconds).toNanos();
+        System.out.printf("%d threads, warmup %ds, duration %ds against %s%n", threads, warmupSeconds, durationSeconds, baseUrl);
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i, table, warmupEnd, end);
+            Thread thread = new Thread(worker, "load-test-" + i);
+            workers.add(worker);
+            running.add(thread);
+            thread.start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        report(workers);
+    }
+
+    private void loadIds() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(get("/api/load-test/ids").build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/load-test/ids -> " + response.statusCode()
+                    + " (jpashop.load-test.enabled=true 로 실행했는지 확인)");
+        }
+        JsonNode ids = new ObjectMapper().readTree(response.body());
+        members = IdPool.of(ids.get("members"), 0, seed);
+        items = IdPool.of(ids.get("items"), 1.0, seed);
+        if (members == null || items == null) {
+            throw new IllegalStateException("회원이나 상품이 없다. 먼저 POST /api/load-test/data");
+        }
+    }
+
+    // 가중치만큼 시나리오를 채운 표 (난수 하나로 고른다)
+    private static Scenario[] weightedTable() {
+        List<Scenario> table = new ArrayList<>();
+        for (Scenario scenario : Scenario.values()) {
+            for (int i = 0; i < scenario.weight; i++) {
+                table.add(scenario);
+            }
+        }
+        return table.toArray(new Scenario[0]);
+    }
+
+    HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    HttpRequest.Builder get(String path) {
+        return builder(path).GET();
+    }
+
+    private class Worker implements Runnable {
+
+        private final String clientId;
+        private final Scenario[] table;
+        private final long warmupEnd;
+        private final long end;
+        private final Random random;
+
+        // 시나리오별 응답 시간(마이크로초), 오류, 거절
+        private final LongList[] latencies = new LongList[Scenario.values().length];
+        private final long[] errors = new long[Scenario.values().length];
+        private final long[] rejected = new long[Scenario.values().length];
+
+        Worker(int index, Scenario[] table, long warmupEnd, long end) {
+            this.clientId = "load-test-" + index;
+            this.table = table;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+            this.random = new Random(seed + index);
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LongList();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long start = System.nanoTime();
+                if (start >= end) {
+                    return;
+                }
+                Scenario scenario = table[random.nextInt(table.length)];
+                HttpRequest request = scenario.request(ScenarioRunner.this, random).header("X-Client-Id", clientId).build();
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long elapsedMicros = (System.nanoTime() - start) / 1000;
+                if (start < warmupEnd) {
+                    continue;
+                }
+                int i = scenario.ordinal();
+                if (status == 429 || status == 503) {
+                    rejected[i]++;
+                } else if (status < 200 || status >= 400) {
+                    errors[i]++;
+                } else {
+                    latencies[i].add(elapsedMicros);
+                }
+            }
+        }
+    }
+
+    private void report(List<Worker> workers) {
+        System.out.printf("%n%-20s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "ok", "errors", "rejected", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        LongList all = new LongList();
+        long totalErrors = 0;
+        long totalRejected = 0;
+        for (Scenario scenario : Scenario.values()) {
+            int i = scenario.ordinal();
+            LongList merged = new LongList();
+            long errors = 0;
+            long rejected = 0;
+            for (Worker worker : workers) {
+                worker.latencies[i].forEach(merged::add);
+                errors += worker.errors[i];
+                rejected += worker.rejected[i];
+            }
+            merged.forEach(all::add);
+            totalErrors += errors;
+            totalRejected += rejected;
+            printRow(scenario.name(), merged, errors, rejected);
+        }
+        printRow("TOTAL", all, totalErrors, totalRejected);
+    }
+
+    private void printRow(String name, LongList latencies, long errors, long rejected) {
+        long[] sorted = latencies.toArray();
+        Arrays.sort(sorted);
+        System.out.printf("%-20s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, sorted.length, errors, rejected, (double) sorted.length / durationSeconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)), millis(percentile(sorted, 0.99)),
+                millis(percentile(sorted, 0.999)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    // nearest-rank
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // 서버에서 받은 id 중에서 뽑는다. skew > 0 이면 Zipf (인기 순위는 섞는다), 0이면 고르게
+    private static class IdPool {
+
+        private final long[] ids;
+        private final ZipfDistribution zipf;
+
+        private IdPool(long[] ids, double skew) {
+            this.ids = ids;
+            this.zipf = skew > 0 ? new ZipfDistribution(ids.length, skew) : null;
+        }
+
+        static IdPool of(JsonNode array, double skew, long seed) {
+            if (array == null || array.size() == 0) {
+                return null;
+            }
+            long[] ids = new long[array.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = array.get(i).asLong();
+            }
+            Random random = new Random(seed);
+            for (int i = ids.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long tmp = ids[i];
+                ids[i] = ids[j];
+                ids[j] = tmp;
+            }
+            return new IdPool(ids, skew);
+        }
+
+        long pick(Random random) {
+            return ids[zipf == null ? random.nextInt(ids.length) : zipf.sample(random)];
+        }
+    }
+}
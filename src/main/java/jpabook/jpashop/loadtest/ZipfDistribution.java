@@ -0,0 +1,36 @@
+package jpabook.jpashop.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 0 ~ n-1 순위를 Zipf 분포로 뽑는다. (순위 k가 나올 확률 ∝ 1 / (k+1)^exponent)
+ * 누적 확률을 미리 계산해 두고 이진 탐색한다.
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(Random random) {
+        double u = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, u);
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
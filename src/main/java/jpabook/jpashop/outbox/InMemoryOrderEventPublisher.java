@@ -0,0 +1,41 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.domain.OrderEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 받은 이벤트를 메모리에 쌓아두기만 하는 구현. (로컬, 테스트용)
+ * jpashop.outbox.publisher=memory 일 때만 등록된다.
+ * 최근 capacity개만 남기고 오래된 것부터 버린다.
+ */
+public class InMemoryOrderEventPublisher implements OrderEventPublisher {
+
+    private final int capacity;
+    private final Deque<OrderEvent> published = new ArrayDeque<>();
+
+    public InMemoryOrderEventPublisher(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            if (published.size() == capacity) {
+                published.removeFirst();
+            }
+            published.addLast(event);
+        }
+    }
+
+    public synchronized List<OrderEvent> getPublished() {
+        return new ArrayList<>(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.domain.OrderEvent;
+
+import java.util.List;
+
+/**
+ * 주문 이벤트를 외부(메시지 브로커 등)로 내보내는 SPI.
+ * OrderEventRelay가 피드 위치 순서대로 묶어서 호출한다.
+ * 예외 없이 반환하면 내보낸 것으로 기록되고, 예외를 던지면 다음 주기에 같은 묶음을 다시 보낸다. (at-least-once)
+ * 따라서 받는 쪽은 이벤트 id로 중복을 걸러야 한다.
+ */
+public interface OrderEventPublisher {
+
+    void publish(List<OrderEvent> events);
+}
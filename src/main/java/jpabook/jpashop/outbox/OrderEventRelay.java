@@ -0,0 +1,82 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.domain.OrderEvent;
+import jpabook.jpashop.repository.OrderEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 주기적으로 커밋된 주문 이벤트에 피드 위치를 매기고, 아직 내보내지 않은 이벤트를 batchSize개씩 위치 순으로 OrderEventPublisher로 내보낸다.
+ * 내보내는 동안에는 트랜잭션(DB 커넥션)을 잡고 있지 않는다.
+ * publisher가 없으면(null) 피드 위치만 매긴다.
+ */
+@Slf4j
+public class OrderEventRelay implements AutoCloseable {
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ScheduledExecutorService executor;
+
+    public OrderEventRelay(OrderEventRepository orderEventRepository, OrderEventPublisher publisher,
+                           TransactionTemplate transactionTemplate, int batchSize) {
+        this.orderEventRepository = orderEventRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-event-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalMillis) {
+        executor.scheduleWithFixedDelay(this::relayAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void relayAll() {
+        try {
+            while (relayOnce() == batchSize) {
+                // 밀린 이벤트가 더 있으면 바로 다음 묶음을 보낸다.
+            }
+        } catch (RuntimeException e) {
+            log.warn("order event relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 한 묶음을 내보낸다.
+     * @return 내보낸 이벤트 수 (publisher가 없으면 피드 위치를 매긴 이벤트 수)
+     */
+    public synchronized int relayOnce() {
+        Integer assigned = transactionTemplate.execute(status -> orderEventRepository.assignFeedPositions(batchSize));
+        if (publisher == null) {
+            return assigned == null ? 0 : assigned;
+        }
+
+        List<OrderEvent> events = transactionTemplate.execute(status -> orderEventRepository.findUnpublished(batchSize));
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        publisher.publish(events);
+
+        List<Long> eventIds = events.stream().map(OrderEvent::getId).collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> orderEventRepository.markPublished(eventIds, LocalDateTime.now()));
+        return events.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.repository.OrderEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 주문 이벤트 outbox 설정.
+ * jpashop.outbox.publisher=memory 면 InMemoryOrderEventPublisher를 등록한다. (로컬, 테스트용)
+ * 그 밖의 값이면 OrderEventPublisher 빈을 따로 등록해야 내보낸다. 없으면 피드 위치만 매긴다.
+ * jpashop.outbox.relay-interval-millis가 0 이하면 주기적으로 내보내지 않는다. (relayOnce를 직접 호출)
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jpashop.outbox", name = "publisher", havingValue = "memory")
+    public InMemoryOrderEventPublisher orderEventPublisher(@Value("${jpashop.outbox.memory-capacity:10000}") int capacity) {
+        return new InMemoryOrderEventPublisher(capacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    public OrderEventRelay orderEventRelay(OrderEventRepository orderEventRepository,
+                                           ObjectProvider<OrderEventPublisher> orderEventPublisher,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${jpashop.outbox.relay-batch-size:500}") int batchSize,
+                                           @Value("${jpashop.outbox.relay-interval-millis:1000}") long intervalMillis) {
+        OrderEventRelay relay = new OrderEventRelay(orderEventRepository, orderEventPublisher.getIfAvailable(),
+                new TransactionTemplate(transactionManager), batchSize);
+        if (intervalMillis > 0) {
+            relay.start(intervalMillis);
+        }
+        return relay;
+    }
+}
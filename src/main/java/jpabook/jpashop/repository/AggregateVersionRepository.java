@@ -0,0 +1,36 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.AggregateVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class AggregateVersionRepository {
+
+    private final EntityManager em;
+
+    public void save(AggregateVersion aggregateVersion) {
+        em.persist(aggregateVersion);
+    }
+
+    public List<AggregateVersion> findAll() {
+        return em.createQuery("select v from AggregateVersion v", AggregateVersion.class)
+                .getResultList();
+    }
+
+    /**
+     * 변경 횟수를 1씩 올린다. (update 한 번, 커밋할 때까지 row lock을 잡는다)
+     */
+    public int increment(List<String> aggregates) {
+        return em.createQuery(
+                        "update AggregateVersion v" +
+                                " set v.version = v.version + 1" +
+                                " where v.aggregate in :aggregates")
+                .setParameter("aggregates", aggregates)
+                .executeUpdate();
+    }
+}
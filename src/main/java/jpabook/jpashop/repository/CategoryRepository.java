@@ -0,0 +1,47 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.item.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+
+    private final EntityManager em;
+
+    public void save(Category category) {
+        em.persist(category);
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    // 하위 트리(자기 자신 포함)에 속한 모든 상품
+    // parent/child를 따라 내려가면 레벨마다 쿼리가 나가지만, 계층 인덱스(CategoryClosure)를 이용하면 한 번이다.
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return em.createQuery(
+                        "select distinct i from CategoryClosure cc" +
+                                " join cc.descendant c" +
+                                " join c.items i" +
+                                " where cc.ancestor.id = :categoryId", Item.class)
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+    }
+
+    // 최상위 카테고리부터 자기 자신까지 순서대로
+    public List<Category> findBreadcrumb(Long categoryId) {
+        return em.createQuery(
+                        "select a from CategoryClosure cc" +
+                                " join cc.ancestor a" +
+                                " where cc.descendant.id = :categoryId" +
+                                " order by cc.depth desc", Category.class)
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+    }
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.repository;
+
+import lombok.Data;
+
+/**
+ * 상품 목록, 주문 화면에서 필요한 상품 정보만 담은 DTO
+ * dtype은 단일 테이블 전략의 구분 컬럼 값이다. (A: Album, B: Book, M: Movie)
+ */
+@Data
+public class ItemCatalogDto {
+    private Long id;
+    private String name;
+    private int price;
+    private int stockQuantity;
+    private char dtype;
+
+    public ItemCatalogDto(Long id, String name, int price, int stockQuantity, char dtype) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.dtype = dtype;
+    }
+}
@@ -6,6 +6,8 @@ import org.apache.catalina.LifecycleState;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -45,4 +47,38 @@ public class ItemRepository {
                 .getResultList();
     }
 
+    // 카탈로그용 조회 - 엔티티를 영속성 컨텍스트에 올리지 않고 필요한 컬럼만 가져온다.
+    // JPQL로는 구분 컬럼(dtype) 값을 바로 꺼낼 수 없어서 네이티브 쿼리를 사용했다.
+    public List<ItemCatalogDto> findAllCatalogItems() {
+        List<?> rows = em.createNativeQuery(
+                        "select item_id, name, price, stock_quantity, dtype from item order by item_id")
+                .getResultList();
+        return toCatalogItems(rows);
+    }
+
+    public List<ItemCatalogDto> findCatalogItems(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<?> rows = em.createNativeQuery(
+                        "select item_id, name, price, stock_quantity, dtype from item where item_id in (:ids)")
+                .setParameter("ids", ids)
+                .getResultList();
+        return toCatalogItems(rows);
+    }
+
+    private List<ItemCatalogDto> toCatalogItems(List<?> rows) {
+        List<ItemCatalogDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            result.add(new ItemCatalogDto(
+                    ((Number) columns[0]).longValue(),
+                    (String) columns[1],
+                    ((Number) columns[2]).intValue(),
+                    ((Number) columns[3]).intValue(),
+                    columns[4].toString().charAt(0)));
+        }
+        return result;
+    }
+
 }
@@ -0,0 +1,42 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Member;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 회원 일괄 등록용 리포지토리.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberBulkRepository {
+
+    private final EntityManager em;
+
+    /**
+     * names 중 이미 사용 중인 이름 (in 쿼리 한 번)
+     */
+    public List<String> findExistingNames(Collection<String> names) {
+        return em.createQuery("select m.name from Member m where m.name in :names", String.class)
+                .setParameter("names", names)
+                .getResultList();
+    }
+
+    /**
+     * members를 batchSize개씩 묶어서 JDBC batch insert 한다.
+     * 다 넣은 뒤에는 영속성 컨텍스트를 비워서 다음 묶음에 엔티티가 쌓이지 않게 한다.
+     */
+    public void insertAll(List<Member> members, int batchSize) {
+        em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        for (Member member : members) {
+            em.persist(member);
+        }
+        em.flush();
+        em.clear();
+    }
+}
@@ -0,0 +1,23 @@
+package jpabook.jpashop.repository;
+
+import lombok.Data;
+
+/**
+ * 회원 목록용 DTO (orders 컬렉션 없이 목록에 보여줄 컬럼만 담는다)
+ */
+@Data
+public class MemberListDto {
+    private Long id;
+    private String name;
+    private String city;
+    private String street;
+    private String zipcode;
+
+    public MemberListDto(Long id, String name, String city, String street, String zipcode) {
+        this.id = id;
+        this.name = name;
+        this.city = city;
+        this.street = street;
+        this.zipcode = zipcode;
+    }
+}
@@ -0,0 +1,11 @@
+package jpabook.jpashop.repository;
+
+/**
+ * 회원 id, 이름만 조회하는 프로젝션 (Member 엔티티와 orders 컬렉션을 로딩하지 않는다)
+ */
+public interface MemberNameView {
+
+    Long getId();
+
+    String getName();
+}
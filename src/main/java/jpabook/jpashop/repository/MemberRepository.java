@@ -1,10 +1,16 @@
 package jpabook.jpashop.repository;
 
 import jpabook.jpashop.domain.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
@@ -12,4 +18,44 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     // select m from Member m where m.name = :name
     List<Member> findByName(String name);
 
+    // 존재 여부만 확인 (엔티티를 만들지 않는다)
+    // select m.id from Member m where m.name = :name (limit 1)
+    boolean existsByName(String name);
+
+    // 이름 중복 검사용 Bloom filter를 만들 때 사용 (트랜잭션 안에서 소비해야 한다)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select m.name from Member m where m.name is not null")
+    Stream<String> streamAllNames();
+
+    // select m.id from Member m where m.name = :name and m.id <> :id (limit 1)
+    boolean existsByNameAndIdNot(String name, Long id);
+
+    // 이름 변경을 엔티티 조회 + dirty checking 없이 update 한 번으로 처리한다.
+    // 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 실행 후 영속성 컨텍스트를 비운다. (clearAutomatically)
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.name = :name, m.nameKey = lower(:name) where m.id = :id")
+    int updateName(@Param("id") Long id, @Param("name") String name);
+
+    // 이름 prefix 검색 (typeahead, 대소문자 무시)
+    // select m.id, m.name from Member m where m.nameKey like :prefix% escape '\' order by m.nameKey, m.name limit ?
+    // prefix는 Member.nameKey()로 소문자로 바꿔서 넘긴다. like 'prefix%' 조건은 name_key 인덱스를 그대로 탄다.
+    List<MemberNameView> findByNameKeyStartingWithOrderByNameKeyAscNameAsc(String nameKeyPrefix, Pageable pageable);
+
+    // 회원 목록 keyset 페이징 (id 순)
+    // offset 대신 이전 페이지의 마지막 id 다음부터 읽으므로 몇 번째 페이지든 PK 인덱스 range scan 한 번이다.
+    // 반환 타입이 Page가 아니므로 count 쿼리도 나가지 않는다. (Pageable은 limit 용도로만 쓴다)
+    @Query("select new jpabook.jpashop.repository.MemberListDto(m.id, m.name, m.address.city, m.address.street, m.address.zipcode)" +
+            " from Member m" +
+            " where m.id > :afterId" +
+            " order by m.id")
+    List<MemberListDto> findListAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 회원 목록 keyset 페이징 (이름 순)
+    // name은 unique 이므로 이름만으로 다음 페이지 위치가 정해진다. (name이 null인 회원은 포함되지 않는다)
+    @Query("select new jpabook.jpashop.repository.MemberListDto(m.id, m.name, m.address.city, m.address.street, m.address.zipcode)" +
+            " from Member m" +
+            " where m.name > :afterName" +
+            " order by m.name")
+    List<MemberListDto> findListAfterName(@Param("afterName") String afterName, Pageable pageable);
+
 }
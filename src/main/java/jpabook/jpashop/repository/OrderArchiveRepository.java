@@ -0,0 +1,85 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.ArchivedOrderLine;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+
+    private final EntityManager em;
+
+    /**
+     * before 이전에 주문했고 끝난(취소 또는 배송 완료) 주문의 [order id, delivery id]를 id 순으로 최대 limit개
+     */
+    public List<Object[]> findClosedOrders(LocalDateTime before, int limit) {
+        return em.createQuery(
+                        "select o.id, d.id from Order o" +
+                                " join o.delivery d" +
+                                " where o.orderDate < :before" +
+                                " and (o.status = :canceled or d.status = :completed)" +
+                                " order by o.id", Object[].class)
+                .setParameter("before", before)
+                .setParameter("canceled", OrderStatus.CANCEL)
+                .setParameter("completed", DeliveryStatus.COMP)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 주문들을 archived_order_line으로 옮긴다. (insert ... select 한 번, delete 세 번)
+     * 벌크 연산이므로 마지막에 영속성 컨텍스트를 비운다.
+     * @return 옮긴 주문 상품 수
+     */
+    public int moveToArchive(List<Object[]> orders) {
+        List<Long> orderIds = orders.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        List<Long> deliveryIds = orders.stream().map(row -> (Long) row[1]).collect(Collectors.toList());
+
+        em.flush();
+        int lines = em.createQuery(
+                        "insert into ArchivedOrderLine (orderItemId, orderId, orderDate, orderStatus," +
+                                " memberId, memberName, deliveryStatus, city, street, zipcode," +
+                                " itemId, itemName, orderPrice, orderCount)" +
+                                " select oi.id, o.id, o.orderDate, o.status," +
+                                " m.id, m.name, d.status, d.address.city, d.address.street, d.address.zipcode," +
+                                " i.id, i.name, oi.orderPrice, oi.count" +
+                                " from OrderItem oi" +
+                                " join oi.order o" +
+                                " join o.member m" +
+                                " join o.delivery d" +
+                                " join oi.item i" +
+                                " where o.id in :orderIds")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+
+        em.createQuery("delete from OrderItem oi where oi.order.id in :orderIds")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+        em.createQuery("delete from Order o where o.id in :orderIds")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+        em.createQuery("delete from Delivery d where d.id in :deliveryIds")
+                .setParameter("deliveryIds", deliveryIds)
+                .executeUpdate();
+
+        em.clear();
+        return lines;
+    }
+
+    public List<ArchivedOrderLine> findLines(Long orderId) {
+        return em.createQuery(
+                        "select l from ArchivedOrderLine l" +
+                                " where l.orderId = :orderId" +
+                                " order by l.orderItemId", ArchivedOrderLine.class)
+                .setParameter("orderId", orderId)
+                .getResultList();
+    }
+}
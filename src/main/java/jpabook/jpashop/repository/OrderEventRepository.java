@@ -0,0 +1,104 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.OrderEvent;
+import jpabook.jpashop.domain.OrderEventType;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderEventRepository {
+
+    private final EntityManager em;
+
+    public void save(OrderEvent event) {
+        em.persist(event);
+    }
+
+    /**
+     * 벌크 취소 대상 중 아직 ORDER 상태인 주문마다 CANCELED 이벤트를 남긴다.
+     * OrderRepository.cancelAll 전에 호출해야 한다. (cancelAll은 상태를 바꾸고 영속성 컨텍스트를 비운다)
+     * @return 남긴 이벤트 수
+     */
+    public int saveCanceledEvents(List<Long> orderIds) {
+        List<Object[]> rows = em.createQuery(
+                        "select o.id, o.member.id from Order o" +
+                                " where o.id in :orderIds" +
+                                " and o.status = :status", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            em.persist(new OrderEvent((Long) row[0], (Long) row[1], OrderEventType.CANCELED));
+        }
+        em.flush();
+        return rows.size();
+    }
+
+    /**
+     * 아직 피드 위치가 없는(커밋된) 이벤트에 id 순으로 최대 limit개까지 마지막 위치 다음부터 위치를 매긴다.
+     * 여러 서버의 relay가 동시에 매기면 feed_position unique 제약에 걸려 한쪽이 실패하고 다음 주기에 다시 매긴다.
+     * @return 위치를 매긴 이벤트 수
+     */
+    public int assignFeedPositions(int limit) {
+        List<OrderEvent> events = em.createQuery(
+                        "select e from OrderEvent e" +
+                                " where e.feedPosition is null" +
+                                " order by e.id", OrderEvent.class)
+                .setMaxResults(limit)
+                .getResultList();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Long last = em.createQuery("select max(e.feedPosition) from OrderEvent e", Long.class).getSingleResult();
+        long position = last == null ? 0 : last;
+        for (OrderEvent event : events) {
+            event.assignFeedPosition(++position);
+        }
+        em.flush();
+        return events.size();
+    }
+
+    /**
+     * afterPosition 다음 피드 위치부터 위치 순으로 최대 limit개 (change feed)
+     * 위치가 아직 없는 이벤트는 OrderEventRelay가 위치를 매긴 뒤에 나온다.
+     */
+    public List<OrderEvent> findAfter(long afterPosition, int limit) {
+        return em.createQuery(
+                        "select e from OrderEvent e" +
+                                " where e.feedPosition > :afterPosition" +
+                                " order by e.feedPosition", OrderEvent.class)
+                .setParameter("afterPosition", afterPosition)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 피드 위치가 매겨졌지만 아직 내보내지 않은 이벤트를 위치 순으로 최대 limit개
+     */
+    public List<OrderEvent> findUnpublished(int limit) {
+        return em.createQuery(
+                        "select e from OrderEvent e" +
+                                " where e.publishedAt is null" +
+                                " and e.feedPosition is not null" +
+                                " order by e.feedPosition", OrderEvent.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public int markPublished(List<Long> eventIds, LocalDateTime publishedAt) {
+        return em.createQuery(
+                        "update OrderEvent e set e.publishedAt = :publishedAt" +
+                                " where e.id in :eventIds")
+                .setParameter("publishedAt", publishedAt)
+                .setParameter("eventIds", eventIds)
+                .executeUpdate();
+    }
+}
@@ -1,14 +1,18 @@
 package jpabook.jpashop.repository;
 
+import jpabook.jpashop.domain.DeliveryStatus;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +30,13 @@ public class OrderRepository {
         return em.find(Order.class, id);
     }
 
+    // 주문 행을 잠그고(select ... for update) 조회한다. 상태를 보고 바꾸는 동안 다른 트랜잭션이 끼어들지 못한다.
+    // 같은 트랜잭션에서 저장한 주문이 아직 insert 되지 않았을 수 있으므로 먼저 flush 한다.
+    public Order findOneForUpdate(Long id) {
+        em.flush();
+        return em.find(Order.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
     // 동적 쿼리... OrderSearch에서 orderStatus나 memberName이 null인 경우
     // 쿼리 스트링 자체가 변경되어야 한다... where 절이 없어져야 하는 것이다.
     // 그래서 동적 쿼리이다.
@@ -49,6 +60,26 @@ public class OrderRepository {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Order> cq = cb.createQuery(Order.class);
         Root<Order> o = cq.from(Order.class);
+        cq.where(searchPredicates(cb, o, orderSearch));
+        // 최근 주문부터 1000건. 정렬이 없으면 어떤 1000건이 나올지 DB 마음이다.
+        // order_date 인덱스를 역순으로 읽다가 1000건에서 멈춘다.
+        cq.orderBy(cb.desc(o.get("orderDate")), cb.desc(o.get("id")));
+        TypedQuery<Order> query = em.createQuery(cq).setMaxResults(1000);
+        return query.getResultList();
+    }
+
+    // findAllByCriteria와 같은 조건에 해당하는 ORDER 상태 주문 id를 id 순으로 최대 limit개 조회한다. (벌크 취소 대상)
+    public List<Long> findOrderedIdsByCriteria(OrderSearch orderSearch, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Order> o = cq.from(Order.class);
+        cq.select(o.get("id"))
+                .where(searchPredicates(cb, o, orderSearch), cb.equal(o.get("status"), OrderStatus.ORDER))
+                .orderBy(cb.asc(o.get("id")));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    private Predicate searchPredicates(CriteriaBuilder cb, Root<Order> o, OrderSearch orderSearch) {
         Join<Order, Member> m = o.join("member", JoinType.INNER); //회원과 조인
         List<Predicate> criteria = new ArrayList<>();
         //주문 상태 검색
@@ -64,9 +95,16 @@ public class OrderRepository {
                             orderSearch.getMemberName() + "%");
             criteria.add(name);
         }
-        cq.where(cb.and(criteria.toArray(new Predicate[criteria.size()])));
-        TypedQuery<Order> query = em.createQuery(cq).setMaxResults(1000);
-        return query.getResultList();
+        //주문일 검색 (order_date 인덱스 range scan)
+        if (orderSearch.getFromDate() != null) {
+            criteria.add(cb.greaterThanOrEqualTo(o.<LocalDateTime>get("orderDate"),
+                    orderSearch.getFromDate().atStartOfDay()));
+        }
+        if (orderSearch.getToDate() != null) {
+            criteria.add(cb.lessThan(o.<LocalDateTime>get("orderDate"),
+                    orderSearch.getToDate().plusDays(1).atStartOfDay()));
+        }
+        return cb.and(criteria.toArray(new Predicate[criteria.size()]));
     }
 
     public List<Order> findAllWithMemberDelivery() {
@@ -174,5 +212,73 @@ public class OrderRepository {
                 .setMaxResults(limit)
                 .getResultList();
     }
-}
 
+    /*
+     벌크 주문 취소
+     - Order.cancel()은 주문 한 건씩 orderItems를 돌면서 Item.addStock을 호출한다. (주문 수 * 상품 수 만큼 쿼리)
+     - 아래 메서드들은 주문 id 목록 전체를 한 번의 update 쿼리로 처리한다. (주문 수와 상관없이 쿼리 수가 일정)
+     - 벌크 연산은 영속성 컨텍스트를 무시하고 DB에 바로 쿼리를 날린다.
+       그래서 restoreStock 전에 flush, cancelAll 후에 clear 해서 영속성 컨텍스트와 DB가 어긋나지 않게 했다.
+     */
+
+    // orderIds 중 ORDER 상태인 주문 행을 잠그고(select ... for update) 그 id를 돌려준다.
+    // 같은 주문을 동시에 취소하는 트랜잭션은 여기서 기다렸다가, 앞 트랜잭션이 커밋하면 CANCEL 상태를 보고 빠진다.
+    // 교착을 줄이려고 항상 id 순으로 잠근다.
+    public List<Long> lockOrderedIds(List<Long> orderIds) {
+        return em.createQuery(
+                        "select o.id from Order o" +
+                                " where o.id in :orderIds" +
+                                " and o.status = :status" +
+                                " order by o.id", Long.class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    // 배송 완료(COMP)된 주문 수
+    public long countCompletedDeliveries(List<Long> orderIds) {
+        return em.createQuery(
+                        "select count(o) from Order o" +
+                                " join o.delivery d" +
+                                " where o.id in :orderIds" +
+                                " and d.status = :deliveryStatus", Long.class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("deliveryStatus", DeliveryStatus.COMP)
+                .getSingleResult();
+    }
+
+    // 아직 취소되지 않은(ORDER) 주문들의 주문 수량을 상품별로 합산해서 재고에 더한다.
+    // update item ... from (select item_id, sum(count) ...) 형태는 DB마다 문법이 달라서
+    // 같은 의미의 상관 서브쿼리로 작성했다. (item_id 인덱스를 타므로 쿼리 한 번이다)
+    // 주문 상태를 CANCEL로 바꾸기 전에 호출해야 한다.
+    public int restoreStock(List<Long> orderIds) {
+        em.flush();
+        return em.createQuery(
+                        "update Item i" +
+                                " set i.stockQuantity = i.stockQuantity + (" +
+                                "   select sum(oi.count) from OrderItem oi join oi.order o" +
+                                "   where oi.item = i and o.id in :orderIds and o.status = :status)" +
+                                " where i.id in (" +
+                                "   select oi.item.id from OrderItem oi join oi.order o" +
+                                "   where o.id in :orderIds and o.status = :status)")
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .executeUpdate();
+    }
+
+    public int cancelAll(List<Long> orderIds) {
+        int canceled = em.createQuery(
+                        "update Order o" +
+                                " set o.status = :cancel" +
+                                " where o.id in :orderIds" +
+                                " and o.status = :status")
+                .setParameter("cancel", OrderStatus.CANCEL)
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .executeUpdate();
+        // 이미 로딩된 엔티티는 벌크 연산 이전 값을 가지고 있으므로 영속성 컨텍스트를 비운다.
+        em.clear();
+        return canceled;
+    }
+}
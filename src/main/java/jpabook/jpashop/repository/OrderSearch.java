@@ -3,6 +3,9 @@ package jpabook.jpashop.repository;
 import jpabook.jpashop.domain.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
 
 @Getter
 @Setter
@@ -10,4 +13,9 @@ public class OrderSearch {
 
     private String memberName;  // 회원 이름
     private OrderStatus orderStatus;    // 주문 상태
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;     // 주문일 시작 (포함)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;       // 주문일 끝 (포함)
 }
@@ -0,0 +1,146 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.SalesDimension;
+import jpabook.jpashop.domain.SalesStat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SalesStatRepository {
+
+    private final EntityManager em;
+
+    public void save(SalesStat salesStat) {
+        em.persist(salesStat);
+    }
+
+    public SalesStat findOne(SalesDimension dimension, Long keyId) {
+        return em.createQuery(
+                        "select s from SalesStat s" +
+                                " where s.dimension = :dimension" +
+                                " and s.keyId = :keyId", SalesStat.class)
+                .setParameter("dimension", dimension)
+                .setParameter("keyId", keyId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    // 매출 순 상위 limit개 (dimension, revenue 인덱스를 역순으로 읽는다)
+    public List<SalesStat> findTop(SalesDimension dimension, int limit) {
+        return em.createQuery(
+                        "select s from SalesStat s" +
+                                " where s.dimension = :dimension" +
+                                " order by s.revenue desc, s.keyId", SalesStat.class)
+                .setParameter("dimension", dimension)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // keyId가 from 이상 to 이하인 통계 (일별 통계 기간 조회용)
+    public List<SalesStat> findRange(SalesDimension dimension, long from, long to) {
+        return em.createQuery(
+                        "select s from SalesStat s" +
+                                " where s.dimension = :dimension" +
+                                " and s.keyId between :from and :to" +
+                                " order by s.keyId", SalesStat.class)
+                .setParameter("dimension", dimension)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    /**
+     * 기존 row에 증감한다. (update 한 번, 읽고 쓰는 사이에 다른 트랜잭션의 증감을 덮어쓰지 않는다)
+     * @return 0이면 아직 row가 없다.
+     */
+    public int increment(SalesDimension dimension, Long keyId, long orderCount, long quantity, long revenue) {
+        return em.createQuery(
+                        "update SalesStat s" +
+                                " set s.orderCount = s.orderCount + :orderCount," +
+                                " s.quantity = s.quantity + :quantity," +
+                                " s.revenue = s.revenue + :revenue" +
+                                " where s.dimension = :dimension" +
+                                " and s.keyId = :keyId")
+                .setParameter("orderCount", orderCount)
+                .setParameter("quantity", quantity)
+                .setParameter("revenue", revenue)
+                .setParameter("dimension", dimension)
+                .setParameter("keyId", keyId)
+                .executeUpdate();
+    }
+
+    public int deleteAll() {
+        return em.createQuery("delete from SalesStat s").executeUpdate();
+    }
+
+    /**
+     * 통계 대상 주문 상품 [order id, member id, order date, item id, order price, count]
+     * orderIds 중 ORDER 상태인 주문만 (벌크 취소 전에 빠질 매출을 구할 때 사용)
+     */
+    public List<Object[]> findSalesLines(List<Long> orderIds) {
+        return em.createQuery(
+                        "select o.id, o.member.id, o.orderDate, oi.item.id, oi.orderPrice, oi.count" +
+                                " from OrderItem oi join oi.order o" +
+                                " where o.id in :orderIds" +
+                                " and o.status = :status", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .getResultList();
+    }
+
+    /**
+     * 통계 대상 주문 상품 [order id, member id, order date, item id, order price, count]
+     * 주문 id가 fromId 이상 toId 미만인 ORDER 상태 주문 (재집계용)
+     */
+    public List<Object[]> findSalesLinesInRange(long fromId, long toId) {
+        return em.createQuery(
+                        "select o.id, o.member.id, o.orderDate, oi.item.id, oi.orderPrice, oi.count" +
+                                " from OrderItem oi join oi.order o" +
+                                " where o.id >= :fromId and o.id < :toId" +
+                                " and o.status = :status", Object[].class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .setParameter("status", OrderStatus.ORDER)
+                .getResultList();
+    }
+
+    /**
+     * findSalesLinesInRange와 같은 형태로 아카이브된 주문 상품 (배송 완료되어 옮겨진 주문)
+     */
+    public List<Object[]> findArchivedSalesLinesInRange(long fromId, long toId) {
+        return em.createQuery(
+                        "select l.orderId, l.memberId, l.orderDate, l.itemId, l.orderPrice, l.orderCount" +
+                                " from ArchivedOrderLine l" +
+                                " where l.orderId >= :fromId and l.orderId < :toId" +
+                                " and l.orderStatus = :status", Object[].class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .setParameter("status", OrderStatus.ORDER)
+                .getResultList();
+    }
+
+    /**
+     * 재집계 대상 주문 id의 [최소, 최대] (주문이 없으면 null)
+     */
+    public long[] findOrderIdRange() {
+        Object[] orders = em.createQuery("select min(o.id), max(o.id) from Order o", Object[].class).getSingleResult();
+        Object[] archived = em.createQuery("select min(l.orderId), max(l.orderId) from ArchivedOrderLine l", Object[].class).getSingleResult();
+        Long min = minOf((Long) orders[0], (Long) archived[0]);
+        Long max = orders[1] == null ? (Long) archived[1]
+                : archived[1] == null ? (Long) orders[1] : Math.max((Long) orders[1], (Long) archived[1]);
+        return min == null ? null : new long[]{min, max};
+    }
+
+    private Long minOf(Long a, Long b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : Math.min(a, b);
+    }
+}
@@ -0,0 +1,420 @@
+package jpabook.jpashop.repository.order.analytics;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.support.collection.LongLongMap;
+import jpabook.jpashop.support.collection.LongSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * 주문 상품(order_item + orders) 컬럼형 스냅샷.
+ *
+ * 한 줄을 객체 하나로 두지 않고 컬럼마다 primitive 배열 하나씩 둔다.
+ * 분석 쿼리는 필요한 컬럼 배열만 처음부터 끝까지 훑으므로 엔티티, 박싱, 포인터 추적이 없다.
+ * 배열은 SEGMENT_SIZE줄씩 세그먼트로 나눠 둔다.
+ * 불변이다. 새 줄이 추가되거나 상태가 바뀌면 새 스냅샷을 만드는데, 바뀐 세그먼트만 새로 만들고 나머지는 공유한다.
+ * - 줄 추가: 마지막(덜 찬) 세그먼트만 복사한다.
+ * - 상태 변경: 주문 id 범위가 겹치는 세그먼트만 훑고, 실제로 바뀐 세그먼트의 status 배열만 복사한다.
+ * 줄은 대체로 order_item_id 순이지만, 늦게 커밋되어 나중에 읽힌 줄은 뒤에 붙는다.
+ */
+public final class OrderLineColumns {
+
+    static final int SEGMENT_SIZE = 1 << 16;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final OrderLineColumns EMPTY = new OrderLineColumns(new Segment[0]);
+
+    private final Segment[] segments;
+    private final int size;
+    private final long maxLineId;
+
+    private OrderLineColumns(Segment[] segments) {
+        this.segments = segments;
+        int size = 0;
+        long maxLineId = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+            maxLineId = Math.max(maxLineId, segment.maxLineId);
+        }
+        this.size = size;
+        this.maxLineId = maxLineId;
+    }
+
+    public static OrderLineColumns empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 가장 큰 order_item_id (비어 있으면 0)
+     */
+    public long maxLineId() {
+        return maxLineId;
+    }
+
+    /**
+     * 새 줄을 뒤에 붙인 스냅샷 (마지막 세그먼트만 복사한다)
+     */
+    public OrderLineColumns append(Builder lines) {
+        if (lines.size() == 0) {
+            return this;
+        }
+        int kept = segments.length;
+        Builder builder = new Builder(lines.size());
+        if (kept > 0 && segments[kept - 1].size < SEGMENT_SIZE) {
+            kept--;
+            builder.appendSegment(segments[kept]);
+        }
+        builder.addAll(lines);
+
+        List<Segment> appended = builder.segments();
+        Segment[] result = Arrays.copyOf(segments, kept + appended.size());
+        for (int i = 0; i < appended.size(); i++) {
+            result[kept + i] = appended.get(i);
+        }
+        return new OrderLineColumns(result);
+    }
+
+    /**
+     * orderIds에 속한 줄의 상태를 바꾼 스냅샷
+     */
+    public OrderLineColumns withStatus(LongSet targetOrderIds, OrderStatus status) {
+        if (targetOrderIds.isEmpty()) {
+            return this;
+        }
+        long[] range = {Long.MAX_VALUE, Long.MIN_VALUE};
+        targetOrderIds.forEach(orderId -> {
+            range[0] = Math.min(range[0], orderId);
+            range[1] = Math.max(range[1], orderId);
+        });
+
+        byte ordinal = (byte) status.ordinal();
+        Segment[] result = null;
+        for (int s = 0; s < segments.length; s++) {
+            Segment segment = segments[s];
+            if (segment.maxOrderId < range[0] || segment.minOrderId > range[1]) {
+                continue;
+            }
+            byte[] newStatuses = null;
+            for (int i = 0; i < segment.size; i++) {
+                if (segment.statuses[i] != ordinal && targetOrderIds.contains(segment.orderIds[i])) {
+                    if (newStatuses == null) {
+                        newStatuses = Arrays.copyOf(segment.statuses, segment.size);
+                    }
+                    newStatuses[i] = ordinal;
+                }
+            }
+            if (newStatuses != null) {
+                if (result == null) {
+                    result = segments.clone();
+                }
+                result[s] = segment.withStatuses(newStatuses);
+            }
+        }
+        return result == null ? this : new OrderLineColumns(result);
+    }
+
+    /**
+     * filter를 만족하는 줄의 measure 합계
+     */
+    public long sum(Measure measure, Filter filter) {
+        long total = 0;
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.size; i++) {
+                if (filter.matches(segment.statuses[i], segment.days[i])) {
+                    total += segment.value(measure, i);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * filter를 만족하는 줄을 groupBy 컬럼 값별로 묶어서 measure를 더한다.
+     */
+    public LongLongMap groupSum(GroupBy groupBy, Measure measure, Filter filter) {
+        LongLongMap sums = new LongLongMap();
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.size; i++) {
+                if (filter.matches(segment.statuses[i], segment.days[i])) {
+                    sums.addTo(segment.key(groupBy, i), segment.value(measure, i));
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * 상태별 measure 합계 (OrderStatus ordinal 순서의 배열)
+     */
+    public long[] sumByStatus(Measure measure, Filter filter) {
+        long[] sums = new long[STATUSES.length];
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.size; i++) {
+                if (filter.matches(segment.statuses[i], segment.days[i])) {
+                    sums[segment.statuses[i]] += segment.value(measure, i);
+                }
+            }
+        }
+        return sums;
+    }
+
+    public enum GroupBy {
+        ITEM, ORDER, STATUS, DAY
+    }
+
+    public enum Measure {
+        LINES, QUANTITY, REVENUE
+    }
+
+    /**
+     * 상태(null이면 전체), 주문일 범위(epoch day, 둘 다 포함) 조건
+     */
+    public static final class Filter {
+
+        private final int status;
+        private final int fromDay;
+        private final int toDay;
+
+        private Filter(int status, int fromDay, int toDay) {
+            this.status = status;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        public static Filter all() {
+            return new Filter(-1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        public Filter status(OrderStatus status) {
+            return new Filter(status == null ? -1 : status.ordinal(), fromDay, toDay);
+        }
+
+        public Filter days(Integer fromDay, Integer toDay) {
+            return new Filter(status,
+                    fromDay == null ? Integer.MIN_VALUE : fromDay,
+                    toDay == null ? Integer.MAX_VALUE : toDay);
+        }
+
+        boolean matches(byte lineStatus, int day) {
+            return (status < 0 || lineStatus == status) && day >= fromDay && day <= toDay;
+        }
+    }
+
+    /**
+     * 세그먼트 하나. 배열 길이가 곧 줄 수다. (status 배열만 새로 만들어 바꿔 끼울 수 있다)
+     */
+    private static final class Segment {
+
+        private final int size;
+        private final long[] lineIds;
+        private final long[] orderIds;
+        private final long[] itemIds;
+        private final int[] prices;
+        private final int[] counts;
+        private final byte[] statuses;  // OrderStatus.ordinal()
+        private final int[] days;       // 주문일의 epoch day
+        private final long minOrderId;
+        private final long maxOrderId;
+        private final long maxLineId;
+
+        private Segment(int size, long[] lineIds, long[] orderIds, long[] itemIds,
+                        int[] prices, int[] counts, byte[] statuses, int[] days) {
+            this.size = size;
+            this.lineIds = lineIds;
+            this.orderIds = orderIds;
+            this.itemIds = itemIds;
+            this.prices = prices;
+            this.counts = counts;
+            this.statuses = statuses;
+            this.days = days;
+            long minOrderId = Long.MAX_VALUE;
+            long maxOrderId = Long.MIN_VALUE;
+            long maxLineId = 0;
+            for (int i = 0; i < size; i++) {
+                minOrderId = Math.min(minOrderId, orderIds[i]);
+                maxOrderId = Math.max(maxOrderId, orderIds[i]);
+                maxLineId = Math.max(maxLineId, lineIds[i]);
+            }
+            this.minOrderId = minOrderId;
+            this.maxOrderId = maxOrderId;
+            this.maxLineId = maxLineId;
+        }
+
+        Segment withStatuses(byte[] newStatuses) {
+            return new Segment(size, lineIds, orderIds, itemIds, prices, counts, newStatuses, days);
+        }
+
+        long key(GroupBy groupBy, int i) {
+            switch (groupBy) {
+                case ITEM:
+                    return itemIds[i];
+                case ORDER:
+                    return orderIds[i];
+                case DAY:
+                    return days[i];
+                default:
+                    return statuses[i];
+            }
+        }
+
+        long value(Measure measure, int i) {
+            switch (measure) {
+                case LINES:
+                    return 1;
+                case QUANTITY:
+                    return counts[i];
+                default:
+                    return (long) prices[i] * counts[i];
+            }
+        }
+    }
+
+    /**
+     * 한 줄씩 추가해서 OrderLineColumns를 만든다.
+     * SEGMENT_SIZE줄이 차면 세그먼트로 봉인하고 새 세그먼트를 시작한다. (세그먼트 안에서는 배열을 두 배로 늘린다)
+     */
+    public static final class Builder {
+
+        private final List<Segment> sealed = new ArrayList<>();
+        private int sealedSize;
+
+        private int size;
+        private long[] lineIds;
+        private long[] orderIds;
+        private long[] itemIds;
+        private int[] prices;
+        private int[] counts;
+        private byte[] statuses;
+        private int[] days;
+
+        public Builder(int capacity) {
+            allocate(Math.min(capacity, SEGMENT_SIZE));
+        }
+
+        public int size() {
+            return sealedSize + size;
+        }
+
+        public void add(long lineId, long orderId, long itemId, int price, int count, OrderStatus status, int day) {
+            add(lineId, orderId, itemId, price, count, (byte) status.ordinal(), day);
+        }
+
+        /**
+         * 다른 Builder의 줄을 뒤에 붙인다. (병렬로 읽은 구간을 순서대로 합칠 때)
+         */
+        public void addAll(Builder other) {
+            for (Segment segment : other.sealed) {
+                appendSegment(segment);
+            }
+            for (int i = 0; i < other.size; i++) {
+                add(other.lineIds[i], other.orderIds[i], other.itemIds[i], other.prices[i], other.counts[i],
+                        other.statuses[i], other.days[i]);
+            }
+        }
+
+        /**
+         * lineIds에 없는 줄만 남긴 Builder
+         */
+        public Builder exclude(LongSet excludedLineIds) {
+            Builder result = new Builder(size());
+            forEachLine(this, (segment, i) -> {
+                if (!excludedLineIds.contains(segment.lineIds[i])) {
+                    result.add(segment.lineIds[i], segment.orderIds[i], segment.itemIds[i], segment.prices[i],
+                            segment.counts[i], segment.statuses[i], segment.days[i]);
+                }
+            });
+            return result;
+        }
+
+        public void forEachLineId(LongConsumer action) {
+            forEachLine(this, (segment, i) -> action.accept(segment.lineIds[i]));
+        }
+
+        public OrderLineColumns build() {
+            return new OrderLineColumns(segments().toArray(new Segment[0]));
+        }
+
+        void appendSegment(Segment segment) {
+            for (int i = 0; i < segment.size; i++) {
+                add(segment.lineIds[i], segment.orderIds[i], segment.itemIds[i], segment.prices[i], segment.counts[i],
+                        segment.statuses[i], segment.days[i]);
+            }
+        }
+
+        List<Segment> segments() {
+            List<Segment> result = new ArrayList<>(sealed);
+            if (size > 0) {
+                result.add(new Segment(size,
+                        Arrays.copyOf(lineIds, size), Arrays.copyOf(orderIds, size), Arrays.copyOf(itemIds, size),
+                        Arrays.copyOf(prices, size), Arrays.copyOf(counts, size), Arrays.copyOf(statuses, size),
+                        Arrays.copyOf(days, size)));
+            }
+            return result;
+        }
+
+        private void add(long lineId, long orderId, long itemId, int price, int count, byte status, int day) {
+            if (size == SEGMENT_SIZE) {
+                seal();
+            }
+            ensureCapacity(size + 1);
+            lineIds[size] = lineId;
+            orderIds[size] = orderId;
+            itemIds[size] = itemId;
+            prices[size] = price;
+            counts[size] = count;
+            statuses[size] = status;
+            days[size] = day;
+            size++;
+        }
+
+        private void seal() {
+            sealed.add(new Segment(size, lineIds, orderIds, itemIds, prices, counts, statuses, days));
+            sealedSize += size;
+            size = 0;
+            allocate(SEGMENT_SIZE);
+        }
+
+        private void allocate(int capacity) {
+            lineIds = new long[capacity];
+            orderIds = new long[capacity];
+            itemIds = new long[capacity];
+            prices = new int[capacity];
+            counts = new int[capacity];
+            statuses = new byte[capacity];
+            days = new int[capacity];
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= lineIds.length) {
+                return;
+            }
+            int newCapacity = Math.min(SEGMENT_SIZE, Math.max(capacity, Math.max(16, lineIds.length * 2)));
+            lineIds = Arrays.copyOf(lineIds, newCapacity);
+            orderIds = Arrays.copyOf(orderIds, newCapacity);
+            itemIds = Arrays.copyOf(itemIds, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            counts = Arrays.copyOf(counts, newCapacity);
+            statuses = Arrays.copyOf(statuses, newCapacity);
+            days = Arrays.copyOf(days, newCapacity);
+        }
+
+        private static void forEachLine(Builder builder, LineVisitor visitor) {
+            for (Segment segment : builder.segments()) {
+                for (int i = 0; i < segment.size; i++) {
+                    visitor.visit(segment, i);
+                }
+            }
+        }
+    }
+
+    private interface LineVisitor {
+        void visit(Segment segment, int i);
+    }
+}
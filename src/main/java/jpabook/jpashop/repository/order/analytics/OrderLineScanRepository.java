@@ -0,0 +1,77 @@
+package jpabook.jpashop.repository.order.analytics;
+
+import jpabook.jpashop.domain.OrderEventType;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.support.collection.LongSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+
+/**
+ * OrderLineColumns를 채우기 위한 JDBC 조회. (Hibernate 엔티티를 거치지 않는다)
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderLineScanRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long findMaxLineId() {
+        Long max = jdbcTemplate.queryForObject("select max(order_item_id) from order_item", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * 주문 이벤트에 매겨진 가장 큰 피드 위치 (OrderEventRelay가 커밋 순서대로 매긴다)
+     */
+    public long findMaxFeedPosition() {
+        Long max = jdbcTemplate.queryForObject("select max(feed_position) from order_event", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * order_item_id가 fromId 초과 toId 이하인 줄을 id 순으로 읽는다.
+     */
+    public OrderLineColumns.Builder scan(long fromId, long toId) {
+        OrderLineColumns.Builder builder = new OrderLineColumns.Builder(1024);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select oi.order_item_id, oi.order_id, oi.item_id, oi.order_price, oi.count, o.status, o.order_date" +
+                            " from order_item oi" +
+                            " join orders o on o.order_id = oi.order_id" +
+                            " where oi.order_item_id > ? and oi.order_item_id <= ?" +
+                            " order by oi.order_item_id");
+            ps.setLong(1, fromId);
+            ps.setLong(2, toId);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            Timestamp orderDate = rs.getTimestamp(7);
+            builder.add(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getInt(5),
+                    OrderStatus.valueOf(rs.getString(6)),
+                    orderDate == null ? 0 : (int) orderDate.toLocalDateTime().toLocalDate().toEpochDay());
+        });
+        return builder;
+    }
+
+    /**
+     * 피드 위치가 afterPosition 초과 toPosition 이하인 취소 이벤트의 주문 id
+     * 이벤트 id는 커밋 순서가 아니라서 늦게 커밋된 이벤트를 놓칠 수 있으므로 피드 위치로 읽는다.
+     */
+    public LongSet findCanceledOrderIds(long afterPosition, long toPosition) {
+        LongSet orderIds = new LongSet();
+        jdbcTemplate.query(
+                "select order_id from order_event" +
+                        " where feed_position > ? and feed_position <= ?" +
+                        " and type = ?",
+                rs -> {
+                    orderIds.add(rs.getLong(1));
+                }, afterPosition, toPosition, OrderEventType.CANCELED.name());
+        return orderIds;
+    }
+}
@@ -1,12 +1,13 @@
 package jpabook.jpashop.repository.order.query;
 
+import jpabook.jpashop.support.collection.LongList;
+import jpabook.jpashop.support.collection.LongObjectMap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -28,32 +29,37 @@ public class OrderQueryRepository {
     public List<OrderQueryDto> findAllByDto_optimization() {
         List<OrderQueryDto> orders = findOrders();
 
-        List<Long> orderIds = toOrderIds(orders);
-
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(orderIds);
-
-        orders.forEach(order -> order.setOrderItems(orderItemMap.get(order.getOrderId())));
+        // orderId -> 주문 DTO. key를 박싱하거나 Entry 객체를 만들지 않는다.
+        LongObjectMap<OrderQueryDto> ordersById = new LongObjectMap<>(orders.size());
+        LongList orderIds = new LongList(orders.size());
+        for (OrderQueryDto order : orders) {
+            ordersById.put(order.getOrderId(), order);
+            orderIds.add(order.getOrderId());
+        }
+
+        // 주문별 List를 따로 모으지 않고 조회한 OrderItem을 바로 주문 DTO에 붙인다.
+        for (OrderItemQueryDto orderItem : findOrderItems(orderIds)) {
+            OrderQueryDto order = ordersById.get(orderItem.getOrderId());
+            if (order.getOrderItems() == null) {
+                order.setOrderItems(new ArrayList<>());
+            }
+            order.getOrderItems().add(orderItem);
+        }
 
         return orders;
     }
 
-    private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
-        List<OrderItemQueryDto> orderItems = em.createQuery(
+    private List<OrderItemQueryDto> findOrderItems(LongList orderIds) {
+        return em.createQuery(
                         "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto" +
                                 // oi.order.id는 orderitem 테이블의 order_id 컬럼값을 사용한다.
                                 "(oi.order.id, i.name, oi.orderPrice, oi.count)" +
                                 " from OrderItem oi" +
                                 " join oi.item i" +
                                 " where oi.order.id in :orderIds", OrderItemQueryDto.class)
-                .setParameter("orderIds", orderIds)
+                // 파라미터 바인딩할 때만 박싱한다.
+                .setParameter("orderIds", orderIds.boxed())
                 .getResultList();
-
-        return orderItems.stream()
-                .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
-    }
-
-    private List<Long> toOrderIds(List<OrderQueryDto> result) {
-        return result.stream().map(OrderQueryDto::getOrderId).collect(Collectors.toList());
     }
 
     private List<OrderItemQueryDto> findOrderItems(Long orderId) {
@@ -0,0 +1,45 @@
+package jpabook.jpashop.repository.order.report;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 리포트용 주문 한 건. 엔티티가 아닌 단순 값 객체이다. (프록시, 영속성 컨텍스트와 무관)
+ */
+@Getter
+public class OrderReportDto {
+
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+    private final OrderStatus orderStatus;
+    private final Long memberId;
+    private final String memberName;
+    private final DeliveryStatus deliveryStatus;
+    private final Address deliveryAddress;
+    private final List<OrderReportItemDto> orderItems;
+
+    public OrderReportDto(Long orderId, LocalDateTime orderDate, OrderStatus orderStatus,
+                          Long memberId, String memberName,
+                          DeliveryStatus deliveryStatus, Address deliveryAddress,
+                          List<OrderReportItemDto> orderItems) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.orderStatus = orderStatus;
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.deliveryStatus = deliveryStatus;
+        this.deliveryAddress = deliveryAddress;
+        this.orderItems = orderItems;
+    }
+
+    public int getTotalPrice() {
+        return orderItems.stream()
+                .mapToInt(OrderReportItemDto::getTotalPrice)
+                .sum();
+    }
+}
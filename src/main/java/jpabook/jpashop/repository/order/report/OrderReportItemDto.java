@@ -0,0 +1,25 @@
+package jpabook.jpashop.repository.order.report;
+
+import lombok.Getter;
+
+@Getter
+public class OrderReportItemDto {
+
+    private final Long orderItemId;
+    private final Long itemId;
+    private final String itemName;
+    private final int orderPrice;
+    private final int count;
+
+    public OrderReportItemDto(Long orderItemId, Long itemId, String itemName, int orderPrice, int count) {
+        this.orderItemId = orderItemId;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.orderPrice = orderPrice;
+        this.count = count;
+    }
+
+    public int getTotalPrice() {
+        return orderPrice * count;
+    }
+}
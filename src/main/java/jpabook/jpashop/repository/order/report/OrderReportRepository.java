@@ -0,0 +1,119 @@
+package jpabook.jpashop.repository.order.report;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 대량 주문 리포트용 리포지토리.
+ *
+ * OrderRepository로 수만 건의 Order를 조회하면 요청이 끝날 때까지 모든 엔티티, 프록시, 스냅샷이
+ * 영속성 컨텍스트(1차 캐시)에 쌓인다.
+ * 여기서는 StatelessSession(영속성 컨텍스트, 변경 감지, 지연 로딩이 없다)과 forward-only 커서로
+ * 한 row씩 읽어서 주문 단위로 묶은 뒤 바로 consumer에 넘긴다.
+ * 메모리에는 현재 처리 중인 주문 한 건만 남기 때문에 전체 건수와 상관없이 힙 사용량이 일정하다.
+ */
+@Repository
+public class OrderReportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final SessionFactory sessionFactory;
+
+    public OrderReportRepository(EntityManagerFactory emf) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * from 이상 to 미만인 주문을 주문 id 순서로 consumer에 넘긴다. (null이면 해당 조건 없음)
+     * @return 넘긴 주문 수
+     */
+    public long streamOrders(LocalDateTime from, LocalDateTime to, Consumer<OrderReportDto> consumer) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // "(:from is null or ...)"는 null 파라미터 타입을 추론하지 못하는 DB(PostgreSQL 등)가 있고
+            // 인덱스도 못 타므로, 값이 있는 조건만 붙인다. (OrderRepository.searchPredicates와 같은 방식)
+            String jpql = "select o.id, o.orderDate, o.status, m.id, m.name, d.status, d.address," +
+                    " oi.id, i.id, i.name, oi.orderPrice, oi.count" +
+                    " from Order o" +
+                    " join o.member m" +
+                    " join o.delivery d" +
+                    " left join o.orderItems oi" +
+                    " left join oi.item i";
+            List<String> criteria = new ArrayList<>();
+            if (from != null) {
+                criteria.add("o.orderDate >= :from");
+            }
+            if (to != null) {
+                criteria.add("o.orderDate < :to");
+            }
+            if (!criteria.isEmpty()) {
+                jpql += " where " + String.join(" and ", criteria);
+            }
+            jpql += " order by o.id, oi.id";
+
+            Query<Object[]> query = session.createQuery(jpql, Object[].class);
+            if (from != null) {
+                query.setParameter("from", from);
+            }
+            if (to != null) {
+                query.setParameter("to", to);
+            }
+            // PostgreSQL 등은 트랜잭션 안에서만 커서(fetch size)가 동작한다.
+            Transaction tx = session.beginTransaction();
+            try (ScrollableResults rows = query
+                    .setFetchSize(FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+                long count = 0;
+                Object[] header = null;
+                List<OrderReportItemDto> items = new ArrayList<>();
+
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    if (header != null && !header[0].equals(row[0])) {
+                        consumer.accept(toOrder(header, items));
+                        count++;
+                        items = new ArrayList<>();
+                    }
+                    header = row;
+                    if (row[7] != null) {
+                        items.add(new OrderReportItemDto(
+                                (Long) row[7], (Long) row[8], (String) row[9], (Integer) row[10], (Integer) row[11]));
+                    }
+                }
+
+                if (header != null) {
+                    consumer.accept(toOrder(header, items));
+                    count++;
+                }
+                tx.commit();
+                return count;
+            } catch (RuntimeException e) {
+                tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private OrderReportDto toOrder(Object[] row, List<OrderReportItemDto> items) {
+        return new OrderReportDto(
+                (Long) row[0], (LocalDateTime) row[1], (OrderStatus) row[2],
+                (Long) row[3], (String) row[4],
+                (DeliveryStatus) row[5], (Address) row[6],
+                items);
+    }
+}
@@ -0,0 +1,128 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.AggregateVersion;
+import jpabook.jpashop.repository.AggregateVersionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 주문, 회원, 상품의 변경 횟수. 목록 API의 ETag로 쓴다.
+ *
+ * 변경 횟수는 DB(aggregate_version)에 두고 모든 서버 인스턴스가 같이 쓴다.
+ * 서비스가 변경할 때마다 bump()하면, 그 트랜잭션이 커밋되기 직전에 같은 트랜잭션에서 올린다.
+ * 변경과 함께 커밋되거나 함께 롤백되므로, 어느 서버에서 바뀌었든 다른 서버가 바뀌기 전 ETag로 304를 주지 않는다.
+ * row lock은 커밋 직전부터 커밋까지만 잡는다. (같은 aggregate를 바꾸는 커밋끼리는 순서대로 처리된다)
+ * 조회하는 쪽은 데이터를 읽기 전에 ETag를 만든다. 그 사이에 커밋되면 다음 요청에서 새 ETag로 다시 받는다.
+ *
+ * 약한(W/) ETag를 쓴다. 같은 데이터라도 gzip 압축 여부에 따라 바이트가 다르고,
+ * Tomcat은 강한 ETag가 붙은 응답은 압축하지 않기 때문이다. (server.compression)
+ * If-None-Match는 약한 비교를 하므로 304 응답에는 차이가 없다.
+ *
+ * 서비스를 거치지 않은 변경(DB 직접 수정 등)은 반영되지 않는다.
+ */
+@Component
+public class AggregateVersions {
+
+    public enum Aggregate {
+        ORDER, MEMBER, ITEM
+    }
+
+    private final AggregateVersionRepository aggregateVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate initTemplate;
+    private volatile boolean initialized;
+
+    public AggregateVersions(AggregateVersionRepository aggregateVersionRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.aggregateVersionRepository = aggregateVersionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.initTemplate = new TransactionTemplate(transactionManager);
+        this.initTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long get(Aggregate aggregate) {
+        return findAll().get(aggregate);
+    }
+
+    /**
+     * 변경 횟수를 올린다. 트랜잭션 안이면 커밋 직전에 같은 트랜잭션에서 올린다. (롤백되면 올라가지 않는다)
+     */
+    public void bump(Aggregate... aggregates) {
+        ensureRows();
+        List<String> names = new ArrayList<>(aggregates.length);
+        for (Aggregate aggregate : aggregates) {
+            names.add(aggregate.name());
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> aggregateVersionRepository.increment(names));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                aggregateVersionRepository.increment(names);
+            }
+        });
+    }
+
+    /**
+     * aggregates의 현재 변경 횟수로 만든 약한 ETag. 예: W/"o12.m4"
+     */
+    public String etag(Aggregate... aggregates) {
+        Map<Aggregate, Long> versions = findAll();
+        StringBuilder etag = new StringBuilder("W/\"");
+        for (int i = 0; i < aggregates.length; i++) {
+            if (i > 0) {
+                etag.append('.');
+            }
+            etag.append(Character.toLowerCase(aggregates[i].name().charAt(0))).append(versions.get(aggregates[i]));
+        }
+        return etag.append('"').toString();
+    }
+
+    private Map<Aggregate, Long> findAll() {
+        ensureRows();
+        Map<Aggregate, Long> versions = new EnumMap<>(Aggregate.class);
+        for (AggregateVersion version : aggregateVersionRepository.findAll()) {
+            versions.put(Aggregate.valueOf(version.getAggregate()), version.getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * aggregate별 row가 없으면 넣는다. (처음 한 번, 별도 트랜잭션)
+     */
+    private void ensureRows() {
+        if (initialized) {
+            return;
+        }
+        try {
+            initTemplate.executeWithoutResult(status -> insertMissingRows());
+        } catch (RuntimeException e) {
+            // 다른 서버가 동시에 넣었으면 키 중복으로 실패한다. 다시 확인해서 모두 있으면 된다.
+            initTemplate.executeWithoutResult(status -> insertMissingRows());
+        }
+        initialized = true;
+    }
+
+    private void insertMissingRows() {
+        Set<String> existing = new HashSet<>();
+        aggregateVersionRepository.findAll().forEach(version -> existing.add(version.getAggregate()));
+        for (Aggregate aggregate : Aggregate.values()) {
+            if (!existing.contains(aggregate.name())) {
+                aggregateVersionRepository.save(new AggregateVersion(aggregate.name()));
+            }
+        }
+    }
+}
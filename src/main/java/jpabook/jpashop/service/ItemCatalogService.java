@@ -0,0 +1,129 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.ItemCatalogDto;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 상품 목록 화면, 주문 화면용 인메모리 상품 카탈로그.
+ *
+ * 페이지를 볼 때마다 "select i from Item i"로 Item 엔티티 전체를 읽는 대신,
+ * 필요한 필드만 담은 불변 스냅샷(ItemCatalogSnapshot)을 메모리에 두고 그대로 돌려준다.
+ * 상품이 바뀌는 트랜잭션(ItemService, OrderService)은 ItemChangedEvent를 발행한다.
+ * 커밋된 뒤에는 바뀐 상품 id만 모아 두고 바로 돌아온다. (커밋하는 스레드는 DB를 읽거나 스냅샷을 복사하지 않는다)
+ * 백그라운드 스레드가 COALESCE_MILLIS 동안 모인 상품을 한 번에 다시 읽어서 새 스냅샷으로 교체한다.
+ * 따라서 스냅샷은 커밋보다 조금(COALESCE_MILLIS 정도) 늦을 수 있다.
+ * 읽는 쪽은 volatile 필드 하나만 읽으므로 락이 없다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemCatalogService implements AutoCloseable {
+
+    private static final long COALESCE_MILLIS = 100;
+    private static final long RETRY_MILLIS = 1_000;
+
+    private final ItemRepository itemRepository;
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingAll = new AtomicBoolean();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "item-catalog-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ItemCatalogSnapshot snapshot;
+
+    public ItemCatalogSnapshot getSnapshot() {
+        ItemCatalogSnapshot current = snapshot;
+        if (current == null) {
+            current = initialize();
+        }
+        return current;
+    }
+
+    private synchronized ItemCatalogSnapshot initialize() {
+        if (snapshot == null) {
+            rebuild();
+        }
+        return snapshot;
+    }
+
+    public List<ItemCatalogDto> getItems() {
+        return getSnapshot().asList();
+    }
+
+    public List<ItemCatalogDto> searchByName(String prefix, int limit) {
+        return getSnapshot().searchByNamePrefix(prefix, limit);
+    }
+
+    // 변경 트랜잭션이 커밋된 뒤에 호출된다. (롤백되면 호출되지 않는다)
+    // 바뀐 상품 id만 모아 두고, 반영은 백그라운드 스레드가 한다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (snapshot == null) {
+            // 아직 한 번도 만들지 않았다면 처음 조회할 때 최신 상태로 만들어진다.
+            return;
+        }
+        if (event.isAll()) {
+            pendingAll.set(true);
+        } else {
+            pendingIds.addAll(event.getItemIds());
+        }
+        schedule(COALESCE_MILLIS);
+    }
+
+    private void schedule(long delayMillis) {
+        if (scheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::applyPending, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // 한 스레드에서 순서대로 실행되고 rebuild()와도 락을 같이 쓰므로, 먼저 읽은 값이 늦게 읽은(더 최신) 값을 덮어쓰지 않는다.
+    // 모아 둔 id는 DB를 읽기 전에 꺼내므로, 읽는 도중에 커밋된 변경은 다음 실행에서 반영된다.
+    private synchronized void applyPending() {
+        scheduled.set(false);
+        List<Long> itemIds = new ArrayList<>(pendingIds);
+        try {
+            if (pendingAll.getAndSet(false)) {
+                pendingIds.clear();
+                snapshot = ItemCatalogSnapshot.of(itemRepository.findAllCatalogItems());
+                return;
+            }
+            if (itemIds.isEmpty()) {
+                return;
+            }
+            pendingIds.removeAll(itemIds);
+            snapshot = snapshot.patch(itemRepository.findCatalogItems(itemIds), itemIds);
+        } catch (RuntimeException e) {
+            // 놓친 변경이 없도록 다음에는 전체를 다시 읽는다.
+            log.warn("item catalog refresh failed, retrying with a full reload: {}", e.getMessage());
+            pendingAll.set(true);
+            schedule(RETRY_MILLIS);
+        }
+    }
+
+    public synchronized ItemCatalogSnapshot rebuild() {
+        snapshot = ItemCatalogSnapshot.of(itemRepository.findAllCatalogItems());
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
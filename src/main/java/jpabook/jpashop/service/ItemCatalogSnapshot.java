@@ -0,0 +1,249 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.ItemCatalogDto;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * 상품 카탈로그의 불변 스냅샷.
+ * 상품 하나를 객체 하나로 들고 있지 않고 필드별 배열(id 오름차순)로 들고 있다. (객체 헤더, 참조 비용 절약)
+ * 변경 시에는 배열을 복사한 새 스냅샷을 만든다. (copy-on-write) 따라서 읽는 쪽은 락이 필요 없다.
+ * 가격, 재고만 바뀌면(주문, 취소) 그 두 배열만 복사하고 나머지 배열과 이름 인덱스는 이전 스냅샷과 공유한다.
+ */
+public final class ItemCatalogSnapshot {
+
+    private final long[] ids;
+    private final String[] names;
+    private final int[] prices;
+    private final int[] stockQuantities;
+    private final char[] dtypes;
+
+    // 이름 검색용 정렬 인덱스. 처음 검색할 때 만든다. (스냅샷이 불변이므로 여러 번 만들어져도 결과는 같다)
+    private volatile NameIndex nameIndex;
+
+    private ItemCatalogSnapshot(long[] ids, String[] names, int[] prices, int[] stockQuantities, char[] dtypes) {
+        this.ids = ids;
+        this.names = names;
+        this.prices = prices;
+        this.stockQuantities = stockQuantities;
+        this.dtypes = dtypes;
+    }
+
+    /**
+     * @param items id 오름차순으로 정렬된 상품 목록
+     */
+    static ItemCatalogSnapshot of(List<ItemCatalogDto> items) {
+        int size = items.size();
+        ItemCatalogSnapshot snapshot = new ItemCatalogSnapshot(
+                new long[size], new String[size], new int[size], new int[size], new char[size]);
+        for (int i = 0; i < size; i++) {
+            snapshot.set(i, items.get(i));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 바뀐 상품만 반영한 새 스냅샷을 반환한다.
+     * @param changed 새로 읽어 온 상품 정보
+     * @param requestedIds 다시 읽어 온 상품 id (changed에 없으면 삭제된 상품)
+     */
+    ItemCatalogSnapshot patch(List<ItemCatalogDto> changed, Collection<Long> requestedIds) {
+        Map<Long, ItemCatalogDto> changedById = new HashMap<>();
+        for (ItemCatalogDto item : changed) {
+            changedById.put(item.getId(), item);
+        }
+
+        if (onlyValuesChanged(changedById, requestedIds)) {
+            return patchValues(changedById);
+        }
+
+        // 새로 추가된 상품 id (정렬)
+        long[] added = changedById.keySet().stream()
+                .mapToLong(Long::longValue)
+                .filter(id -> Arrays.binarySearch(ids, id) < 0)
+                .sorted()
+                .toArray();
+
+        int capacity = ids.length + added.length;
+        ItemCatalogSnapshot result = new ItemCatalogSnapshot(
+                new long[capacity], new String[capacity], new int[capacity], new int[capacity], new char[capacity]);
+
+        // 정렬된 두 배열(기존 id, 추가된 id)을 병합한다.
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length || j < added.length) {
+            if (j == added.length || (i < ids.length && ids[i] < added[j])) {
+                long id = ids[i];
+                ItemCatalogDto item = changedById.get(id);
+                if (item != null) {
+                    result.set(size++, item);
+                } else if (!requestedIds.contains(id)) {
+                    result.copyFrom(size++, this, i);
+                }
+                // 다시 읽었는데 없으면 삭제된 상품이므로 건너뛴다.
+                i++;
+            } else {
+                result.set(size++, changedById.get(added[j++]));
+            }
+        }
+
+        return size == capacity ? result : result.truncate(size);
+    }
+
+    // 추가, 삭제, 이름/종류 변경 없이 가격, 재고만 바뀌었는지
+    private boolean onlyValuesChanged(Map<Long, ItemCatalogDto> changedById, Collection<Long> requestedIds) {
+        for (Long id : requestedIds) {
+            int index = Arrays.binarySearch(ids, id);
+            ItemCatalogDto item = changedById.get(id);
+            if (index < 0 || item == null) {
+                return false;
+            }
+            if (!Objects.equals(names[index], item.getName()) || dtypes[index] != item.getDtype()) {
+                return false;
+            }
+        }
+        return changedById.size() == requestedIds.size();
+    }
+
+    // id, 이름, 종류 배열과 이름 인덱스는 그대로 공유하고 가격, 재고 배열만 새로 만든다.
+    private ItemCatalogSnapshot patchValues(Map<Long, ItemCatalogDto> changedById) {
+        int[] newPrices = Arrays.copyOf(prices, prices.length);
+        int[] newStockQuantities = Arrays.copyOf(stockQuantities, stockQuantities.length);
+        for (ItemCatalogDto item : changedById.values()) {
+            int index = Arrays.binarySearch(ids, item.getId());
+            newPrices[index] = item.getPrice();
+            newStockQuantities[index] = item.getStockQuantity();
+        }
+        ItemCatalogSnapshot result = new ItemCatalogSnapshot(ids, names, newPrices, newStockQuantities, dtypes);
+        result.nameIndex = nameIndex;
+        return result;
+    }
+
+    private void copyFrom(int index, ItemCatalogSnapshot source, int sourceIndex) {
+        ids[index] = source.ids[sourceIndex];
+        names[index] = source.names[sourceIndex];
+        prices[index] = source.prices[sourceIndex];
+        stockQuantities[index] = source.stockQuantities[sourceIndex];
+        dtypes[index] = source.dtypes[sourceIndex];
+    }
+
+    private ItemCatalogSnapshot truncate(int size) {
+        return new ItemCatalogSnapshot(
+                Arrays.copyOf(ids, size), Arrays.copyOf(names, size), Arrays.copyOf(prices, size),
+                Arrays.copyOf(stockQuantities, size), Arrays.copyOf(dtypes, size));
+    }
+
+    private void set(int index, ItemCatalogDto item) {
+        ids[index] = item.getId();
+        names[index] = item.getName();
+        prices[index] = item.getPrice();
+        stockQuantities[index] = item.getStockQuantity();
+        dtypes[index] = item.getDtype();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public ItemCatalogDto get(int index) {
+        return new ItemCatalogDto(ids[index], names[index], prices[index], stockQuantities[index], dtypes[index]);
+    }
+
+    public ItemCatalogDto findById(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? null : get(index);
+    }
+
+    /**
+     * 이름이 prefix로 시작하는 상품을 이름 순으로 최대 limit개 찾는다. (대소문자 무시)
+     * 정렬된 이름 배열에서 이진 탐색하므로 상품 수와 상관없이 O(log N + limit)이다.
+     */
+    public List<ItemCatalogDto> searchByNamePrefix(String prefix, int limit) {
+        NameIndex index = nameIndex;
+        if (index == null) {
+            index = new NameIndex(names);
+            nameIndex = index;
+        }
+
+        String key = NameIndex.normalize(prefix);
+        List<ItemCatalogDto> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = index.lowerBound(key); i < index.keys.length && result.size() < limit; i++) {
+            if (!index.keys[i].startsWith(key)) {
+                break;
+            }
+            result.add(get(index.positions[i]));
+        }
+        return result;
+    }
+
+    private static final class NameIndex {
+        private final String[] keys;
+        private final int[] positions;
+
+        NameIndex(String[] names) {
+            Integer[] order = new Integer[names.length];
+            String[] normalized = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                order[i] = i;
+                normalized[i] = normalize(names[i]);
+            }
+            Arrays.sort(order, Comparator.comparing(i -> normalized[i]));
+
+            keys = new String[names.length];
+            positions = new int[names.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = normalized[order[i]];
+                positions[i] = order[i];
+            }
+        }
+
+        static String normalize(String name) {
+            return name == null ? "" : name.toLowerCase(Locale.ROOT);
+        }
+
+        // key 이상인 첫 번째 위치
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * id 순서의 읽기 전용 목록. 원소는 꺼낼 때마다 만든다.
+     */
+    public List<ItemCatalogDto> asList() {
+        return new Items();
+    }
+
+    private class Items extends AbstractList<ItemCatalogDto> implements RandomAccess {
+        @Override
+        public ItemCatalogDto get(int index) {
+            return ItemCatalogSnapshot.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 상품 정보(이름, 가격, 재고 등)가 바뀌었음을 알리는 이벤트.
+ * itemIds가 비어 있으면 어떤 상품이 바뀌었는지 모른다는 뜻이다. (벌크 연산 등) --> 전체를 다시 읽는다.
+ */
+@Getter
+public class ItemChangedEvent {
+
+    private final Set<Long> itemIds;
+
+    private ItemChangedEvent(Set<Long> itemIds) {
+        this.itemIds = itemIds;
+    }
+
+    public static ItemChangedEvent of(Collection<Long> itemIds) {
+        return new ItemChangedEvent(Set.copyOf(itemIds));
+    }
+
+    public static ItemChangedEvent all() {
+        return new ItemChangedEvent(Set.of());
+    }
+
+    public boolean isAll() {
+        return itemIds.isEmpty();
+    }
+}
@@ -3,7 +3,9 @@ package jpabook.jpashop.service;
 import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,10 +17,14 @@ import java.util.List;
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AggregateVersions aggregateVersions;
 
     @Transactional
     public void saveItem(Item item) {
         itemRepository.save(item);
+        eventPublisher.publishEvent(ItemChangedEvent.of(List.of(item.getId())));
+        aggregateVersions.bump(Aggregate.ITEM);
     }
 
 
@@ -30,6 +36,8 @@ public class ItemService {
         findItem.setName(name);
         findItem.setPrice(price);
         findItem.setStockQuantity(stockQuantity);
+        eventPublisher.publishEvent(ItemChangedEvent.of(List.of(itemId)));
+        aggregateVersions.bump(Aggregate.ITEM);
         // ... 나머지 파라미터 채움...
         // 이제 아무것도 호출할 필요 없다.
         // repository로부터 아이템을 찾아와서 엔티티가 영속성 컨텍스트에 속해 있기 때문에
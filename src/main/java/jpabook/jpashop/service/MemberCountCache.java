@@ -0,0 +1,64 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 목록 API의 전체 회원 수.
+ *
+ * 페이지를 넘길 때마다 select count(*)를 날리지 않고, TTL 동안은 캐시한 값을 쓴다.
+ * 회원 가입이 커밋되면 캐시한 값에 바로 더해 주므로 TTL 안에서도 크게 어긋나지 않는다.
+ * (다른 서버에서 가입한 회원은 TTL이 지나야 반영되는 근사치다)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCountCache {
+
+    static final long TTL_MILLIS = 30_000;
+
+    private final MemberRepository memberRepository;
+
+    private final AtomicLong count = new AtomicLong();
+    private volatile long loadedAt = -1;
+
+    public long get() {
+        long now = System.currentTimeMillis();
+        if (loadedAt < 0 || now - loadedAt > TTL_MILLIS) {
+            reload(now);
+        }
+        return count.get();
+    }
+
+    private synchronized void reload(long now) {
+        if (loadedAt >= 0 && now - loadedAt <= TTL_MILLIS) {
+            return;
+        }
+        count.set(memberRepository.count());
+        loadedAt = now;
+    }
+
+    /**
+     * 회원 한 명이 추가됐다. 트랜잭션 안이면 커밋된 뒤에 반영한다. (롤백되면 반영하지 않는다)
+     */
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.addAndGet(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.addAndGet(delta);
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 일괄 등록 결과.
+ * errors에는 최대 MAX_ERRORS개까지만 담고, 전체 실패 건수는 failed로 센다.
+ */
+@Getter
+public class MemberImportResult {
+
+    static final int MAX_ERRORS = 1000;
+
+    private long total;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private final List<RowError> errors = new ArrayList<>();
+
+    void countRow() {
+        total++;
+    }
+
+    void countImported(int count) {
+        imported += count;
+    }
+
+    void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        elapsedMillis = elapsedNanos / 1_000_000;
+        rowsPerSecond = elapsedNanos == 0 ? 0 : total * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
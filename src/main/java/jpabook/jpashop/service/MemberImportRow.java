@@ -0,0 +1,35 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+
+/**
+ * 회원 일괄 등록의 입력 한 줄.
+ * 형식이 잘못된 줄은 error에 이유를 담아서 그대로 넘긴다. (결과에 줄 번호와 함께 보고된다)
+ */
+@Getter
+public class MemberImportRow {
+
+    private final long line;
+    private final String name;
+    private final String city;
+    private final String street;
+    private final String zipcode;
+    private final String error;
+
+    private MemberImportRow(long line, String name, String city, String street, String zipcode, String error) {
+        this.line = line;
+        this.name = name;
+        this.city = city;
+        this.street = street;
+        this.zipcode = zipcode;
+        this.error = error;
+    }
+
+    public static MemberImportRow of(long line, String name, String city, String street, String zipcode) {
+        return new MemberImportRow(line, name, city, street, zipcode, null);
+    }
+
+    public static MemberImportRow invalid(long line, String error) {
+        return new MemberImportRow(line, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,144 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberBulkRepository;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 회원 일괄 등록.
+ *
+ * MemberService.join을 한 명씩 부르면 회원마다 중복 조회, insert, 커밋이 따로 일어난다.
+ * 여기서는 입력을 batchSize개씩 묶어서
+ * 1. 묶음 안의 중복 이름을 걸러내고
+ * 2. DB에 이미 있는 이름을 in 쿼리 한 번으로 찾은 뒤
+ * 3. 나머지를 JDBC batch insert 하고 묶음마다 커밋한다.
+ * 묶음마다 커밋하므로 중간에 실패해도 앞에서 넣은 회원은 남는다. (진행 상황은 묶음마다 로그로 남긴다)
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private static final String DUPLICATE_NAME = "이미 존재하는 회원입니다.";
+
+    private final MemberBulkRepository memberBulkRepository;
+    private final MemberNameFilter memberNameFilter;
+    private final MemberCountCache memberCountCache;
+    private final AggregateVersions aggregateVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberImportService(MemberBulkRepository memberBulkRepository,
+                               MemberNameFilter memberNameFilter,
+                               MemberCountCache memberCountCache,
+                               AggregateVersions aggregateVersions,
+                               PlatformTransactionManager transactionManager) {
+        this.memberBulkRepository = memberBulkRepository;
+        this.memberNameFilter = memberNameFilter;
+        this.memberCountCache = memberCountCache;
+        this.aggregateVersions = aggregateVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public MemberImportResult importMembers(Iterator<MemberImportRow> rows, int batchSize) {
+        long start = System.nanoTime();
+        MemberImportResult result = new MemberImportResult();
+        List<MemberImportRow> batch = new ArrayList<>(batchSize);
+
+        while (rows.hasNext()) {
+            MemberImportRow row = rows.next();
+            result.countRow();
+
+            if (row.getError() != null) {
+                result.addError(row.getLine(), row.getError());
+            } else if (row.getName() == null || row.getName().isBlank()) {
+                result.addError(row.getLine(), "이름은 필수 입니다.");
+            } else {
+                batch.add(row);
+            }
+
+            if (batch.size() == batchSize) {
+                importBatch(batch, batchSize, result);
+                batch.clear();
+                log.info("member import: {} rows read, {} imported, {} failed",
+                        result.getTotal(), result.getImported(), result.getFailed());
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, batchSize, result);
+        }
+
+        result.finish(System.nanoTime() - start);
+        log.info("member import finished: {} rows, {} imported, {} failed, {} rows/s",
+                result.getTotal(), result.getImported(), result.getFailed(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void importBatch(List<MemberImportRow> batch, int batchSize, MemberImportResult result) {
+        // 묶음 안에서 같은 이름은 처음 나온 줄만 남긴다.
+        Map<String, MemberImportRow> byName = new LinkedHashMap<>();
+        for (MemberImportRow row : batch) {
+            if (byName.putIfAbsent(row.getName(), row) != null) {
+                result.addError(row.getLine(), DUPLICATE_NAME);
+            }
+        }
+
+        List<MemberImportRow> duplicates = new ArrayList<>();
+        List<String> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                Set<String> existing = new HashSet<>(memberBulkRepository.findExistingNames(byName.keySet()));
+
+                List<Member> members = new ArrayList<>(byName.size());
+                List<String> names = new ArrayList<>(byName.size());
+                for (MemberImportRow row : byName.values()) {
+                    if (existing.contains(row.getName())) {
+                        duplicates.add(row);
+                        continue;
+                    }
+                    members.add(createMember(row));
+                    names.add(row.getName());
+                }
+
+                memberBulkRepository.insertAll(members, batchSize);
+                return names;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 조회와 insert 사이에 다른 곳에서 같은 이름이 들어왔다. 묶음 전체가 롤백된다.
+            log.warn("member import batch rolled back: {}", e.getMostSpecificCause().getMessage());
+            for (MemberImportRow row : byName.values()) {
+                result.addError(row.getLine(), "다른 요청과 이름이 겹쳐서 등록하지 못했습니다. 다시 시도해 주세요.");
+            }
+            return;
+        }
+
+        for (MemberImportRow row : duplicates) {
+            result.addError(row.getLine(), DUPLICATE_NAME);
+        }
+        result.countImported(inserted.size());
+        memberNameFilter.addAll(inserted);
+        memberCountCache.add(inserted.size());
+        aggregateVersions.bump(Aggregate.MEMBER);
+    }
+
+    private Member createMember(MemberImportRow row) {
+        Member member = new Member();
+        member.setName(row.getName());
+        if (row.getCity() != null || row.getStreet() != null || row.getZipcode() != null) {
+            member.setAddress(new Address(row.getCity(), row.getStreet(), row.getZipcode()));
+        }
+        return member;
+    }
+}
@@ -0,0 +1,222 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 회원 이름 중복 검사용 Bloom filter.
+ *
+ * 가입할 때마다 이름으로 회원을 조회하지 않도록, 이미 사용 중인 이름을 bit 배열로 요약해서 메모리에 둔다.
+ * - mightExist()가 false면 확실히 없는 이름이다. --> DB 조회 없이 통과
+ * - true면 있을 수도 있다(오탐 약 1%). --> existsByName으로 확인
+ * 다른 서버에서 가입한 이름은 모를 수 있으므로, 최종 판단은 Member.name의 unique 제약 조건이 한다.
+ *
+ * 필터는 요청을 받을 준비가 된 뒤(ApplicationReadyEvent) 백그라운드 스레드가 DB의 이름 전체로 만든다.
+ * 다 만들 때까지(그리고 용량을 넘어서 다시 만드는 동안) mightExist()는 true를 돌려주므로 existsByName 조회로 검사한다.
+ * 만드는 동안 등록된 이름은 모아 두었다가 새 필터에 넣는다.
+ */
+@Slf4j
+@Component
+public class MemberNameFilter implements AutoCloseable {
+
+    private static final int MIN_CAPACITY = 1 << 16;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long RETRY_MILLIS = 10_000;
+
+    private final MemberRepository memberRepository;
+    // 읽기 전용 트랜잭션은 레플리카로 갈 수 있어서(RoutingDataSource) 방금 가입한 이름을 놓칠 수 있다. primary에서 읽는다.
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "member-name-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BloomFilter filter;
+    // 필터를 만드는 중이면 그 사이에 등록된 이름 (this로 보호)
+    private List<String> pending;
+
+    public MemberNameFilter(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        scheduleBuild(0);
+    }
+
+    /**
+     * 필터가 아직 없으면 있을 수도 있다(true)고 답한다. 요청 스레드에서 필터를 만들거나 기다리지 않는다.
+     */
+    public boolean mightExist(String name) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(name);
+    }
+
+    /**
+     * 새로 쓰인 이름을 등록한다. 트랜잭션 안이면 커밋된 뒤에 등록한다.
+     */
+    public void add(String name) {
+        if (name == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(name);
+            }
+        });
+    }
+
+    /**
+     * 커밋이 끝난 이름들을 한 번에 등록한다. (일괄 등록용)
+     */
+    public synchronized void addAll(Collection<String> names) {
+        for (String name : names) {
+            put(name);
+        }
+    }
+
+    // 만드는 중이면 모아 두고, 아직 만들기 전이면 무시한다. (만들 때 DB에서 읽힌다)
+    // 용량을 넘으면 오탐이 늘어나므로 버리고 백그라운드에서 다시 만든다.
+    private synchronized void put(String name) {
+        if (pending != null) {
+            pending.add(name);
+            return;
+        }
+        if (filter == null) {
+            return;
+        }
+        filter.put(name);
+        if (filter.isFull()) {
+            filter = null;
+            scheduleBuild(0);
+        }
+    }
+
+    private void scheduleBuild(long delayMillis) {
+        builder.schedule(this::build, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // builder 스레드 하나에서만 실행된다. DB를 읽는 동안에는 락을 잡지 않는다.
+    void build() {
+        synchronized (this) {
+            if (filter != null || pending != null) {
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        BloomFilter bloomFilter;
+        try {
+            bloomFilter = transactionTemplate.execute(status -> load());
+        } catch (RuntimeException e) {
+            log.warn("member name filter build failed, retrying in {}ms: {}", RETRY_MILLIS, e.getMessage());
+            synchronized (this) {
+                pending = null;
+            }
+            scheduleBuild(RETRY_MILLIS);
+            return;
+        }
+        synchronized (this) {
+            pending.forEach(bloomFilter::put);
+            pending = null;
+            filter = bloomFilter;
+        }
+    }
+
+    private BloomFilter load() {
+        BloomFilter bloomFilter = new BloomFilter(Math.max(memberRepository.count() * 2, MIN_CAPACITY), FALSE_POSITIVE_RATE);
+        try (Stream<String> names = memberRepository.streamAllNames()) {
+            names.forEach(bloomFilter::put);
+        }
+        return bloomFilter;
+    }
+
+    boolean isReady() {
+        return filter != null;
+    }
+
+    @Override
+    public void close() {
+        builder.shutdownNow();
+    }
+
+    static class BloomFilter {
+
+        private final long[] bits;
+        private final int bitSize;
+        private final int hashCount;
+        private final long capacity;
+        private long size;
+
+        BloomFilter(long capacity, double falsePositiveRate) {
+            long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitSize = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+            this.bits = new long[(bitSize + 63) >>> 6];
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitSize;
+                bits[index >>> 6] |= 1L << index;
+            }
+            size++;
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitSize;
+                if ((bits[index >>> 6] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isFull() {
+            return size > capacity;
+        }
+
+        // 64bit FNV-1a 후 비트를 섞는다. (상위/하위 32bit를 두 개의 해시로 쓴다)
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberListDto;
+import jpabook.jpashop.repository.MemberNameView;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +19,9 @@ import java.util.List;
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final MemberCountCache memberCountCache;
+    private final AggregateVersions aggregateVersions;
+    private final MemberNameFilter memberNameFilter;
 
     /**
      * 회원 가입
@@ -21,13 +29,37 @@ public class MemberService {
     @Transactional
     public Long join(Member member) {
         validateDuplicateMember(member); // 중복 회원 검증 // table column에도 unique 제약 조건 권장
-        memberRepository.save(member);
+        // 검증과 insert 사이에 같은 이름이 먼저 들어올 수 있다. 최종 판단은 unique 제약 조건에 맡기고,
+        // 바로 insert 해서(saveAndFlush) 제약 조건 위반을 같은 예외로 바꾼다.
+        try {
+            memberRepository.saveAndFlush(member);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
+        memberNameFilter.add(member.getName());
+        memberCountCache.increment();
+        aggregateVersions.bump(Aggregate.MEMBER);
         return member.getId();
     }
 
+    // Bloom filter에 없으면 확실히 없는 이름이므로 DB를 조회하지 않는다.
+    // 있을 수도 있으면 회원 엔티티를 가져오지 않고 존재 여부만 확인한다.
     private void validateDuplicateMember(Member member) {
-        List<Member> findMembers = memberRepository.findByName(member.getName());
-        if (!findMembers.isEmpty()) {
+        String name = member.getName();
+        if (name == null || !memberNameFilter.mightExist(name)) {
+            return;
+        }
+        if (memberRepository.existsByName(name)) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.");
+        }
+    }
+
+    // 이름 변경 시 중복 검증 (자기 자신은 제외)
+    private void validateDuplicateMember(Long id, String name) {
+        if (name == null || !memberNameFilter.mightExist(name)) {
+            return;
+        }
+        if (memberRepository.existsByNameAndIdNot(name, id)) {
             throw new IllegalStateException("이미 존재하는 회원입니다.");
         }
     }
@@ -39,16 +71,56 @@ public class MemberService {
         return memberRepository.findAll();
     }
 
+    /**
+     * 회원 목록 (id 순, afterId 다음부터 size명)
+     */
+    public List<MemberListDto> findMembersAfterId(Long afterId, int size) {
+        return memberRepository.findListAfterId(afterId == null ? 0L : afterId, PageRequest.of(0, size));
+    }
+
+    /**
+     * 회원 목록 (이름 순, afterName 다음부터 size명)
+     */
+    public List<MemberListDto> findMembersAfterName(String afterName, int size) {
+        return memberRepository.findListAfterName(afterName == null ? "" : afterName, PageRequest.of(0, size));
+    }
+
+    /**
+     * 전체 회원 수 (캐시한 근사치)
+     */
+    public long countMembers() {
+        return memberCountCache.get();
+    }
+
+    /**
+     * 이름 prefix 검색 (최대 limit명, 이름 순, 대소문자 무시)
+     */
+    public List<MemberNameView> searchByName(String prefix, int limit) {
+        return memberRepository.findByNameKeyStartingWithOrderByNameKeyAscNameAsc(
+                Member.nameKey(prefix == null ? "" : prefix), PageRequest.of(0, limit));
+    }
+
     public Member findOne(Long memberId) {
         return memberRepository.findById(memberId).get();
     }
 
     // Member 인스턴스를 반환해도 되지만 command and query 분리를 따르는 것을 선택한다면 void 처리하는 것이 맞음
-    // 영속성 컨텍스트에 올라가 있는 member의 속성을 바꿈으로서 dirty checking 발동
-    // 메소드 마지막에 flush(db에 sql문 보내기), commit 차례대로 수행
+    // 이름 하나만 바꾸므로 member를 조회해서 dirty checking 하지 않고 update 쿼리 한 번으로 끝낸다.
+    // update member set name = ? where member_id = ?
+    // 바뀐 상태는 (id, name) 그대로이므로 호출하는 쪽에서 다시 조회할 필요가 없다.
     @Transactional
     public void update(Long id, String name) {
-        Member member = memberRepository.findById(id).get();
-        member.setName(name);
+        validateDuplicateMember(id, name);
+        int updated;
+        try {
+            updated = memberRepository.updateName(id, name);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
+        if (updated == 0) {
+            throw new IllegalStateException("존재하지 않는 회원입니다.");
+        }
+        memberNameFilter.add(name);
+        aggregateVersions.bump(Aggregate.MEMBER);
     }
 }
@@ -0,0 +1,190 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns;
+import jpabook.jpashop.repository.order.analytics.OrderLineScanRepository;
+import jpabook.jpashop.support.collection.LongSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 분석용 주문 상품 컬럼형 스냅샷(OrderLineColumns)을 메모리에 두고 관리한다.
+ *
+ * 처음 조회할 때 order_item_id 구간(SCAN_CHUNK_SIZE)별로 나눠서 SCAN_THREADS개 스레드가 동시에 읽고,
+ * 그 뒤로는 백그라운드 스레드가 REFRESH_INTERVAL_MILLIS마다 갱신한다. (요청 스레드는 갱신하지 않고 현재 스냅샷만 읽는다)
+ * 1. order_item_id는 커밋 순서가 아니다. 작은 id가 늦게 커밋될 수 있으므로
+ *    LAG_WINDOW_MILLIS 전에 읽었던 order_item_id부터 다시 읽고, 이미 가진 줄은 빼고 붙인다.
+ *    LAG_WINDOW_MILLIS보다 오래 걸린 트랜잭션의 줄은 다시 전체를 읽기 전까지 빠진다.
+ * 2. 취소는 주문 이벤트(outbox)의 피드 위치(커밋 순서로 매겨진다)를 따라가며 상태를 바꾼다.
+ *    피드 위치는 OrderEventRelay가 매기므로 relay를 끄면 취소가 반영되지 않는다.
+ * 아카이브로 옮겨진 주문 상품은 다시 전체를 읽기 전까지 스냅샷에 남는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderAnalyticsService implements AutoCloseable {
+
+    private static final long SCAN_CHUNK_SIZE = 100_000;
+    private static final int SCAN_THREADS = 4;
+    private static final long REFRESH_INTERVAL_MILLIS = 5_000;
+    private static final long LAG_WINDOW_MILLIS = 60_000;
+
+    private final OrderLineScanRepository orderLineScanRepository;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-analytics-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Snapshot snapshot;
+
+    public OrderLineColumns getColumns() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current.columns;
+        }
+        refreshLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = load();
+                refresher.scheduleWithFixedDelay(this::refreshQuietly,
+                        REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return snapshot.columns;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 바로 갱신한다. (처음이면 전체를 읽는다)
+     */
+    public OrderLineColumns refresh() {
+        refreshLock.lock();
+        try {
+            if (snapshot == null) {
+                return getColumns();
+            }
+            snapshot = refresh(snapshot);
+            return snapshot.columns;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // 예외가 빠져나가면 ScheduledExecutorService가 이후 갱신을 조용히 멈춘다.
+            log.warn("order line snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        // 이벤트 위치를 먼저 잡아야, 읽는 도중에 취소된 주문이 다음 갱신에서 빠지지 않는다.
+        long feedPosition = orderLineScanRepository.findMaxFeedPosition();
+        long maxLineId = orderLineScanRepository.findMaxLineId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(SCAN_THREADS);
+        try {
+            List<CompletableFuture<OrderLineColumns.Builder>> chunks = new ArrayList<>();
+            for (long from = 0; from < maxLineId; from += SCAN_CHUNK_SIZE) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + SCAN_CHUNK_SIZE, maxLineId);
+                chunks.add(CompletableFuture.supplyAsync(() -> orderLineScanRepository.scan(chunkFrom, chunkTo), executor));
+            }
+
+            int size = 0;
+            List<OrderLineColumns.Builder> builders = new ArrayList<>(chunks.size());
+            for (CompletableFuture<OrderLineColumns.Builder> chunk : chunks) {
+                OrderLineColumns.Builder builder = chunk.join();
+                builders.add(builder);
+                size += builder.size();
+            }
+            OrderLineColumns.Builder all = new OrderLineColumns.Builder(size);
+            builders.forEach(all::addAll);
+
+            OrderLineColumns columns = all.build();
+            log.info("order line snapshot loaded: {} lines in {}ms", columns.size(), System.currentTimeMillis() - start);
+
+            Deque<Cursor> cursors = new ArrayDeque<>();
+            cursors.add(new Cursor(start, maxLineId));
+            return new Snapshot(columns, feedPosition, maxLineId, new LongSet(), cursors);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Snapshot refresh(Snapshot current) {
+        long now = System.currentTimeMillis();
+        long feedPosition = orderLineScanRepository.findMaxFeedPosition();
+        // 아카이브로 가장 큰 id가 지워져도 커서는 뒤로 가지 않는다.
+        long maxLineId = Math.max(orderLineScanRepository.findMaxLineId(), current.maxLineId);
+
+        // LAG_WINDOW_MILLIS 전에 본 커서 중 가장 최근 것부터 다시 읽는다. (그보다 오래된 커서는 버린다)
+        Deque<Cursor> cursors = new ArrayDeque<>(current.cursors);
+        Cursor windowStart = cursors.pollFirst();
+        while (!cursors.isEmpty() && cursors.peekFirst().time <= now - LAG_WINDOW_MILLIS) {
+            windowStart = cursors.pollFirst();
+        }
+        cursors.addFirst(windowStart);
+
+        OrderLineColumns.Builder scanned = orderLineScanRepository.scan(windowStart.lineId, maxLineId);
+        LongSet windowLineIds = new LongSet();
+        scanned.forEachLineId(windowLineIds::add);
+
+        OrderLineColumns columns = current.columns.append(scanned.exclude(current.windowLineIds));
+        if (feedPosition > current.feedPosition) {
+            columns = columns.withStatus(
+                    orderLineScanRepository.findCanceledOrderIds(current.feedPosition, feedPosition), OrderStatus.CANCEL);
+        }
+        cursors.addLast(new Cursor(now, maxLineId));
+        return new Snapshot(columns, feedPosition, maxLineId, windowLineIds, cursors);
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private static class Snapshot {
+        private final OrderLineColumns columns;
+        private final long feedPosition;
+        private final long maxLineId;
+        private final LongSet windowLineIds;  // 마지막으로 다시 읽은 구간에서 이미 스냅샷에 있는 줄
+        private final Deque<Cursor> cursors;  // 갱신할 때마다 본 최대 order_item_id (오래된 순)
+
+        Snapshot(OrderLineColumns columns, long feedPosition, long maxLineId, LongSet windowLineIds, Deque<Cursor> cursors) {
+            this.columns = columns;
+            this.feedPosition = feedPosition;
+            this.maxLineId = maxLineId;
+            this.windowLineIds = windowLineIds;
+            this.cursors = cursors;
+        }
+    }
+
+    private static class Cursor {
+        private final long time;
+        private final long lineId;
+
+        Cursor(long time, long lineId) {
+            this.time = time;
+            this.lineId = lineId;
+        }
+    }
+}
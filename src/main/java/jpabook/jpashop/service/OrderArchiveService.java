@@ -0,0 +1,57 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.OrderArchiveRepository;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 끝난 오래된 주문을 아카이브 테이블로 옮긴다.
+ * batchSize개씩 옮기고 묶음마다 커밋하므로, 한 번에 많은 주문을 옮겨도 트랜잭션(락)이 길어지지 않는다.
+ */
+@Slf4j
+@Service
+public class OrderArchiveService {
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final AggregateVersions aggregateVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderArchiveService(OrderArchiveRepository orderArchiveRepository,
+                               AggregateVersions aggregateVersions,
+                               PlatformTransactionManager transactionManager) {
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.aggregateVersions = aggregateVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * before 이전(그 날 포함 안 함)에 주문했고 취소 또는 배송 완료된 주문을 옮긴다.
+     * @return 옮긴 주문 수
+     */
+    public int archiveClosedOrders(LocalDate before, int batchSize) {
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Object[]> orders = orderArchiveRepository.findClosedOrders(before.atStartOfDay(), batchSize);
+                if (orders.isEmpty()) {
+                    return 0;
+                }
+                orderArchiveRepository.moveToArchive(orders);
+                return orders.size();
+            });
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            aggregateVersions.bump(Aggregate.ORDER);
+            log.info("order archive: {} orders moved (before {})", archived, before);
+        }
+        return archived;
+    }
+}
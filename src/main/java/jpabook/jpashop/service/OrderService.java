@@ -3,26 +3,42 @@ package jpabook.jpashop.service;
 import jpabook.jpashop.domain.Delivery;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderEvent;
+import jpabook.jpashop.domain.OrderEventType;
 import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.OrderEventRepository;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.SalesStatRepository;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OrderService {
 
+    public static final int MAX_CANCEL_BATCH_SIZE = 1000;
+
     private final OrderRepository orderRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final SalesStatRepository salesStatRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AggregateVersions aggregateVersions;
 
     /**
      * 주문
@@ -46,6 +62,12 @@ public class OrderService {
 
         // 주문 저장
         orderRepository.save(order);
+        orderEventRepository.save(OrderEvent.of(order, OrderEventType.ORDERED));
+
+        // 재고가 바뀌었으므로 상품 카탈로그에 알린다. (커밋 후 반영)
+        eventPublisher.publishEvent(ItemChangedEvent.of(List.of(itemId)));
+        eventPublisher.publishEvent(new SalesChangedEvent(salesDelta(order, 1)));
+        aggregateVersions.bump(Aggregate.ORDER, Aggregate.ITEM);
 
         return order.getId();
     }
@@ -55,8 +77,81 @@ public class OrderService {
      */
     @Transactional
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findOne(orderId);
+        // 동시에 같은 주문을 취소하면 둘 다 ORDER 상태를 보고 매출을 두 번 빼지 않도록 행을 잠그고 읽는다.
+        Order order = orderRepository.findOneForUpdate(orderId);
+        boolean wasOrdered = order.getStatus() == OrderStatus.ORDER;
         order.cancel();
+        orderEventRepository.save(OrderEvent.of(order, OrderEventType.CANCELED));
+
+        if (wasOrdered) {
+            eventPublisher.publishEvent(new SalesChangedEvent(salesDelta(order, -1)));
+        }
+
+        eventPublisher.publishEvent(ItemChangedEvent.of(order.getOrderItems().stream()
+                .map(orderItem -> orderItem.getItem().getId())
+                .collect(Collectors.toList())));
+        aggregateVersions.bump(Aggregate.ORDER, Aggregate.ITEM);
+    }
+
+    /**
+     * 벌크 주문 취소
+     * 주문 수와 상관없이 쿼리 수가 일정하다. (행 잠금, 배송 완료 확인, 재고 복구, 주문 상태 변경 등)
+     * ORDER 상태인 주문 행을 먼저 잠그고, 재고 복구, 취소 이벤트(outbox), 매출 통계 모두 잠근 주문만 대상으로 한다.
+     * 그래서 같은 주문을 동시에 취소해도 재고나 통계가 두 번 반영되지 않는다.
+     * 배송 완료된 주문이 하나라도 있으면 전체를 취소하지 않는다.
+     * @return 취소된 주문 수 (이미 취소된 주문은 제외)
+     */
+    @Transactional
+    public int cancelOrders(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        if (orderIds.size() > MAX_CANCEL_BATCH_SIZE) {
+            throw new IllegalStateException("한 번에 취소할 수 있는 주문은 " + MAX_CANCEL_BATCH_SIZE + "건까지입니다.");
+        }
+
+        List<Long> lockedIds = orderRepository.lockOrderedIds(orderIds);
+        if (lockedIds.isEmpty()) {
+            return 0;
+        }
+
+        if (orderRepository.countCompletedDeliveries(lockedIds) > 0) {
+            throw new IllegalStateException("이미 배송 완료된 상품은 취소가 불가능 합니다.");
+        }
+
+        // 이벤트, 재고 복구 모두 ORDER 상태인 주문만 대상으로 하므로 상태 변경보다 먼저 해야 한다.
+        orderEventRepository.saveCanceledEvents(lockedIds);
+        SalesDelta canceledSales = new SalesDelta();
+        Set<Long> itemIds = new HashSet<>();
+        for (Object[] row : salesStatRepository.findSalesLines(lockedIds)) {
+            canceledSales.addLine(row, -1);
+            itemIds.add((Long) row[3]);
+        }
+        orderRepository.restoreStock(lockedIds);
+        int canceled = orderRepository.cancelAll(lockedIds);
+
+        eventPublisher.publishEvent(ItemChangedEvent.of(itemIds));
+        eventPublisher.publishEvent(new SalesChangedEvent(canceledSales));
+        aggregateVersions.bump(Aggregate.ORDER, Aggregate.ITEM);
+        return canceled;
+    }
+
+    /**
+     * 검색 조건에 해당하는 ORDER 상태 주문을 id 순으로 최대 MAX_CANCEL_BATCH_SIZE건 벌크 취소
+     * 더 남았으면 0이 나올 때까지 다시 호출한다.
+     */
+    @Transactional
+    public int cancelOrders(OrderSearch orderSearch) {
+        return cancelOrders(orderRepository.findOrderedIdsByCriteria(orderSearch, MAX_CANCEL_BATCH_SIZE));
+    }
+
+    private SalesDelta salesDelta(Order order, int sign) {
+        SalesDelta delta = new SalesDelta();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            delta.addLine(order.getId(), order.getMember().getId(), order.getOrderDate(),
+                    orderItem.getItem().getId(), orderItem.getOrderPrice(), orderItem.getCount(), sign);
+        }
+        return delta;
     }
 
     /**
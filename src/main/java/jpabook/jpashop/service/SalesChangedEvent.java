@@ -0,0 +1,16 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+
+/**
+ * 주문, 취소로 매출 통계가 바뀌었음을 알리는 이벤트. (커밋 후 SalesStatService가 반영한다)
+ */
+@Getter
+public class SalesChangedEvent {
+
+    private final SalesDelta delta;
+
+    public SalesChangedEvent(SalesDelta delta) {
+        this.delta = delta;
+    }
+}
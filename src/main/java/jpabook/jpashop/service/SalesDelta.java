@@ -0,0 +1,76 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.SalesDimension;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 매출 통계 증감분을 (기준, key)별로 모은다.
+ * 주문 상품 한 줄씩 더하면 주문 수는 주문(상품별로는 주문+상품)마다 한 번만 센다.
+ * 주문, 취소, 재집계 모두 이걸로 모아서 key 수만큼만 SalesStat을 갱신한다.
+ */
+public class SalesDelta {
+
+    private final Map<Key, long[]> deltas = new HashMap<>();
+    private final Set<Long> countedOrders = new HashSet<>();
+    private final Set<List<Long>> countedOrderItems = new HashSet<>();
+
+    /**
+     * 주문 상품 한 줄을 더한다. sign이 -1이면 뺀다. (취소)
+     */
+    public void addLine(Long orderId, Long memberId, LocalDateTime orderDate, Long itemId, int orderPrice, int count, int sign) {
+        long quantity = (long) count * sign;
+        long revenue = (long) orderPrice * count * sign;
+        boolean newOrder = countedOrders.add(orderId);
+        boolean newOrderItem = countedOrderItems.add(List.of(orderId, itemId));
+
+        add(new Key(SalesDimension.ITEM, itemId), newOrderItem ? sign : 0, quantity, revenue);
+        add(new Key(SalesDimension.MEMBER, memberId), newOrder ? sign : 0, quantity, revenue);
+        add(new Key(SalesDimension.DAY, orderDate.toLocalDate().toEpochDay()), newOrder ? sign : 0, quantity, revenue);
+    }
+
+    /**
+     * [order id, member id, order date, item id, order price, count] 형태의 row를 더한다.
+     */
+    public void addLine(Object[] row, int sign) {
+        addLine((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (Long) row[3], (Integer) row[4], (Integer) row[5], sign);
+    }
+
+    /**
+     * 다른 SalesDelta를 합친다. (재집계할 때 구간별 결과를 합친다. 구간끼리 주문이 겹치지 않아야 한다)
+     */
+    public void merge(SalesDelta other) {
+        other.deltas.forEach((key, values) -> add(key, values[0], values[1], values[2]));
+    }
+
+    public Map<Key, long[]> getDeltas() {
+        return deltas;
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    private void add(Key key, long orderCount, long quantity, long revenue) {
+        long[] values = deltas.computeIfAbsent(key, k -> new long[3]);
+        values[0] += orderCount;
+        values[1] += quantity;
+        values[2] += revenue;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class Key {
+        private final SalesDimension dimension;
+        private final Long keyId;
+    }
+}
@@ -0,0 +1,138 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.SalesDimension;
+import jpabook.jpashop.domain.SalesStat;
+import jpabook.jpashop.repository.SalesStatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * 매출 통계 (상품별, 회원별, 일별)
+ *
+ * 주문, 취소가 커밋되면 SalesChangedEvent의 증감분을 새 트랜잭션에서 update 한 번씩으로 반영한다.
+ * 반영이 실패하면(서버 종료 등) 통계가 어긋날 수 있으므로, rebuild()로 주문 테이블에서 다시 집계할 수 있다.
+ */
+@Slf4j
+@Service
+public class SalesStatService {
+
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+    private static final int REBUILD_THREADS = 4;
+
+    private final SalesStatRepository salesStatRepository;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+
+    public SalesStatService(SalesStatRepository salesStatRepository, PlatformTransactionManager transactionManager) {
+        this.salesStatRepository = salesStatRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public SalesStat findStat(SalesDimension dimension, Long keyId) {
+        return readTemplate.execute(status -> salesStatRepository.findOne(dimension, keyId));
+    }
+
+    public List<SalesStat> findTop(SalesDimension dimension, int limit) {
+        return readTemplate.execute(status -> salesStatRepository.findTop(dimension, limit));
+    }
+
+    public List<SalesStat> findRange(SalesDimension dimension, long from, long to) {
+        return readTemplate.execute(status -> salesStatRepository.findRange(dimension, from, to));
+    }
+
+    // 주문 트랜잭션이 커밋된 뒤에 호출된다. (롤백되면 호출되지 않는다)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesChanged(SalesChangedEvent event) {
+        if (event.getDelta().isEmpty()) {
+            return;
+        }
+        try {
+            try {
+                apply(event.getDelta());
+            } catch (DataIntegrityViolationException e) {
+                // 처음 생기는 key의 row를 다른 트랜잭션이 먼저 insert 했다. 이제는 row가 있으므로 update 된다.
+                apply(event.getDelta());
+            }
+        } catch (RuntimeException e) {
+            // 주문은 이미 커밋됐으므로 호출한 쪽으로 예외를 던지지 않는다. 통계만 어긋났으니 rebuild()로 맞춘다.
+            log.error("sales stat update failed ({} keys), run rebuild() to resync", event.getDelta().getDeltas().size(), e);
+        }
+    }
+
+    private void apply(SalesDelta delta) {
+        writeTemplate.executeWithoutResult(status -> {
+            for (Map.Entry<SalesDelta.Key, long[]> entry : delta.getDeltas().entrySet()) {
+                SalesDelta.Key key = entry.getKey();
+                long[] values = entry.getValue();
+                int updated = salesStatRepository.increment(key.getDimension(), key.getKeyId(), values[0], values[1], values[2]);
+                if (updated == 0) {
+                    salesStatRepository.save(new SalesStat(key.getDimension(), key.getKeyId(), values[0], values[1], values[2]));
+                }
+            }
+        });
+    }
+
+    /**
+     * 주문(+ 아카이브) 테이블에서 통계 전체를 다시 집계한다.
+     * 주문 id 구간(REBUILD_CHUNK_SIZE)별로 나눠서 REBUILD_THREADS개 스레드가 동시에 읽어서 집계하고,
+     * 합친 결과로 통계 테이블을 한 트랜잭션에서 교체한다.
+     * 재집계 중에 들어온 주문의 증감은 교체할 때 덮어써질 수 있으므로 한가한 시간에 실행한다.
+     * @return 만든 통계 row 수
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        long[] range = readTemplate.execute(status -> salesStatRepository.findOrderIdRange());
+
+        SalesDelta total = new SalesDelta();
+        if (range != null) {
+            ExecutorService executor = Executors.newFixedThreadPool(REBUILD_THREADS);
+            try {
+                List<CompletableFuture<SalesDelta>> chunks = new ArrayList<>();
+                for (long from = range[0]; from <= range[1]; from += REBUILD_CHUNK_SIZE) {
+                    long chunkFrom = from;
+                    long chunkTo = from + REBUILD_CHUNK_SIZE;
+                    chunks.add(CompletableFuture.supplyAsync(() -> aggregateChunk(chunkFrom, chunkTo), executor));
+                }
+                for (SalesDelta chunk : chunks.stream().map(CompletableFuture::join).collect(Collectors.toList())) {
+                    total.merge(chunk);
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        writeTemplate.executeWithoutResult(status -> {
+            salesStatRepository.deleteAll();
+            total.getDeltas().forEach((key, values) ->
+                    salesStatRepository.save(new SalesStat(key.getDimension(), key.getKeyId(), values[0], values[1], values[2])));
+        });
+
+        log.info("sales stat rebuilt: {} rows in {}ms", total.getDeltas().size(), System.currentTimeMillis() - start);
+        return total.getDeltas().size();
+    }
+
+    private SalesDelta aggregateChunk(long fromId, long toId) {
+        return readTemplate.execute(status -> {
+            SalesDelta delta = new SalesDelta();
+            salesStatRepository.findSalesLinesInRange(fromId, toId).forEach(row -> delta.addLine(row, 1));
+            salesStatRepository.findArchivedSalesLinesInRange(fromId, toId).forEach(row -> delta.addLine(row, 1));
+            return delta;
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package jpabook.jpashop.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 조회를 동시에 여러 번 하지 않도록 묶는다. (single flight)
+ *
+ * 같은 key로 먼저 들어온 요청(leader)만 loader를 실행하고, 실행 중에 들어온 요청은 그 결과를 같이 받는다.
+ * 끝난 뒤에도 freshnessMillis 동안은 같은 결과를 그대로 돌려준다. (0이면 실행 중일 때만 묶는다)
+ * freshnessMillis가 지나면 결과를 치운다. (버전이 바뀐 key는 다시 조회되지 않으므로 기다렸다가 지운다)
+ * 실패하면 기다리던 요청도 같은 예외를 받고, 다음 요청은 다시 실행한다.
+ * 기다리는 요청은 waitTimeoutMillis까지만 기다리고 IllegalStateException을 받는다. (leader가 멈춰도 같이 멈추지 않는다)
+ *
+ * 결과 객체를 여러 요청이 같이 쓰므로 바꾸면 안 된다.
+ * 엔티티는 leader의 영속성 컨텍스트에 속하므로 loader 안에서 DTO로 바꿔서 돌려줘야 한다.
+ * key에 데이터 버전(AggregateVersions)을 넣으면 데이터가 바뀐 뒤에는 새로 실행한다.
+ */
+@Component
+public class SingleFlight implements AutoCloseable {
+
+    private final long freshnessMillis;
+    private final long waitTimeoutMillis;
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService expirer;
+
+    public SingleFlight(@Value("${jpashop.single-flight.freshness-millis:1000}") long freshnessMillis,
+                        @Value("${jpashop.single-flight.wait-timeout-millis:10000}") long waitTimeoutMillis) {
+        this.freshnessMillis = freshnessMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.expirer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "single-flight-expirer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String key, Supplier<V> loader) {
+        long now = System.currentTimeMillis();
+        Flight[] created = new Flight[1];
+        Flight flight = flights.compute(key, (k, existing) -> {
+            if (existing != null && existing.isUsable(now)) {
+                return existing;
+            }
+            created[0] = new Flight();
+            return created[0];
+        });
+
+        if (flight != created[0]) {
+            return (V) flight.await();
+        }
+
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flight.fail(e);
+            flights.remove(key, flight);
+            throw e;
+        }
+        flight.complete(value);
+        if (freshnessMillis <= 0) {
+            flights.remove(key, flight);
+        } else {
+            expirer.schedule(() -> flights.remove(key, flight), freshnessMillis, TimeUnit.MILLISECONDS);
+        }
+        return value;
+    }
+
+    int size() {
+        return flights.size();
+    }
+
+    @Override
+    public void close() {
+        expirer.shutdownNow();
+    }
+
+    private class Flight {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        boolean isUsable(long now) {
+            if (!result.isDone()) {
+                return true;
+            }
+            return !result.isCompletedExceptionally() && now - completedAt <= freshnessMillis;
+        }
+
+        void complete(Object value) {
+            completedAt = System.currentTimeMillis();
+            result.complete(value);
+        }
+
+        void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+
+        Object await() {
+            try {
+                return result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("같은 조회를 " + waitTimeoutMillis + "ms 동안 기다렸지만 끝나지 않았습니다.", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("같은 조회를 기다리다가 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package jpabook.jpashop.support.collection;
+
+/**
+ * long key 해시 테이블(open addressing, linear probing) 공통 계산
+ */
+final class LongHash {
+
+    static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private LongHash() {
+    }
+
+    /**
+     * id처럼 연속된 값도 고르게 퍼지도록 섞는다.
+     */
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * expectedSize개를 담아도 LOAD_FACTOR를 넘지 않는 2의 거듭제곱 크기
+     */
+    static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR);
+        int capacity = 4;
+        while (capacity < needed) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException("too many keys: " + expectedSize);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    static int resizeAt(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,102 @@
+package jpabook.jpashop.support.collection;
+
+import java.util.function.LongConsumer;
+
+/**
+ * long 값 집합 (open addressing, 박싱 없음). 삭제는 지원하지 않는다.
+ */
+public final class LongSet {
+
+    private long[] keys;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean hasZero;  // 0은 빈 칸 표시로 쓰므로 따로 기록한다.
+
+    public LongSet() {
+        this(16);
+    }
+
+    public LongSet(int expectedSize) {
+        allocate(LongHash.capacityFor(expectedSize));
+    }
+
+    /**
+     * 이미 있었으면 false
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int slot = LongHash.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) {
+            return hasZero;
+        }
+        int slot = LongHash.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = LongHash.resizeAt(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        allocate(capacity);
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int slot = LongHash.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
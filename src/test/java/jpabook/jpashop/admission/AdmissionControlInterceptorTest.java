@@ -0,0 +1,86 @@
+package jpabook.jpashop.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+
+    @Test
+    public void weighted_token_bucket_per_client() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBucketCapacity(100);
+        properties.setRefillPerSecond(1);
+        properties.setWeights(Map.of("/api/v1/orders", 50));
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        assertTrue(interceptor.preHandle(request("/api/v1/orders", "a"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("/api/v1/orders", "a"), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("/api/v1/orders", "a"), rejected, null));
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+        // 다른 클라이언트는 영향 없다.
+        assertTrue(interceptor.preHandle(request("/api/v1/orders", "b"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    public void shed_expensive_requests_over_concurrency_limit() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setExpensivePaths(List.of("/api/v4/orders"));
+        properties.setMaxConcurrent(1);
+        properties.setMaxQueue(0);
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        MockHttpServletRequest first = request("/api/v4/orders", "a");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("/api/v4/orders", "b"), shed, null));
+        assertEquals(503, shed.getStatus());
+
+        // 싼 엔드포인트는 동시 실행 제한을 받지 않는다.
+        assertTrue(interceptor.preHandle(request("/api/v3.1/orders", "b"), new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertEquals(1, interceptor.availableExpensivePermits());
+        assertTrue(interceptor.preHandle(request("/api/v4/orders", "b"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    public void client_header_does_not_split_bucket() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBucketCapacity(100);
+        properties.setRefillPerSecond(1);
+        properties.setWeights(Map.of("/api/v1/orders", 50));
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(properties);
+
+        // 같은 IP에서 X-Client-Id만 바꿔 보내도 버킷 하나를 같이 쓴다.
+        MockHttpServletRequest first = request("/api/v1/orders", "a");
+        first.addHeader("X-Client-Id", "client-1");
+        MockHttpServletRequest second = request("/api/v1/orders", "a");
+        second.addHeader("X-Client-Id", "client-2");
+        MockHttpServletRequest third = request("/api/v1/orders", "a");
+        third.addHeader("X-Client-Id", "client-3");
+
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(second, new MockHttpServletResponse(), null));
+        assertFalse(interceptor.preHandle(third, new MockHttpServletResponse(), null));
+    }
+
+    private MockHttpServletRequest request(String pattern, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.api.codec.OrderBinaryFormat;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.AggregateVersionRepository;
+import jpabook.jpashop.service.AggregateVersions;
+import jpabook.jpashop.service.AggregateVersions.Aggregate;
+import jpabook.jpashop.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    AggregateVersionRepository aggregateVersionRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void not_modified_until_member_changes() throws Exception {
+        String etag = mockMvc.perform(get("/api/v2/members"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/v2/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // 회원 가입이 커밋되면 ETag가 바뀐다.
+        Member member = new Member();
+        member.setName("etag-" + UUID.randomUUID());
+        memberService.join(member);
+
+        String newEtag = mockMvc.perform(get("/api/v2/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    public void order_list_etag_depends_on_members() throws Exception {
+        String etag = mockMvc.perform(get("/api/v5/orders"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v5/orders").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Member member = new Member();
+        member.setName("etag-" + UUID.randomUUID());
+        memberService.join(member);
+
+        mockMvc.perform(get("/api/v5/orders").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void order_list_etag_differs_by_representation() throws Exception {
+        String jsonEtag = mockMvc.perform(get("/api/v5/orders"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String binaryEtag = mockMvc.perform(get("/api/v5/orders").accept(OrderBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(jsonEtag, binaryEtag);
+
+        // JSON의 ETag로 바이너리를 요청하면 304가 아니다.
+        mockMvc.perform(get("/api/v5/orders").accept(OrderBinaryFormat.MEDIA_TYPE).header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v5/orders").accept(OrderBinaryFormat.MEDIA_TYPE).header(HttpHeaders.IF_NONE_MATCH, binaryEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    public void etag_is_shared_across_instances() throws Exception {
+        String etag = mockMvc.perform(get("/api/v2/members"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 다른 서버 인스턴스에서 바뀐 것도 반영된다. (같은 DB의 변경 횟수를 쓴다)
+        AggregateVersions otherInstance = new AggregateVersions(aggregateVersionRepository, transactionManager);
+        assertEquals(etag, otherInstance.etag(Aggregate.MEMBER));
+        otherInstance.bump(Aggregate.MEMBER);
+
+        mockMvc.perform(get("/api/v2/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
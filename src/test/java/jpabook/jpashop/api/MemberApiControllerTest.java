@@ -0,0 +1,29 @@
+package jpabook.jpashop.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void invalid_id_cursor_is_bad_request() throws Exception {
+        mockMvc.perform(get("/api/v3/members").param("after", "abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3/members").param("after", "1"))
+                .andExpect(status().isOk());
+        // 이름 정렬의 after는 이름이므로 그대로 쓴다.
+        mockMvc.perform(get("/api/v3/members").param("sort", "NAME").param("after", "abc"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,82 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.OrderSimpleQueryDto;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderJsonSerializersTest {
+
+    // 스프링 부트 기본 설정과 같은 ObjectMapper (날짜를 문자열로 쓴다)
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper handwrittenMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new SimpleModule()
+                    .addSerializer(OrderApiController.OrderDto.class, new OrderJsonSerializers.OrderDtoSerializer())
+                    .addSerializer(OrderApiController.OrderItemDto.class, new OrderJsonSerializers.OrderItemDtoSerializer())
+                    .addSerializer(OrderQueryDto.class, new OrderJsonSerializers.OrderQueryDtoSerializer())
+                    .addSerializer(OrderItemQueryDto.class, new OrderJsonSerializers.OrderItemQueryDtoSerializer())
+                    .addSerializer(OrderSimpleApiController.SimpleOrderDto.class, new OrderJsonSerializers.SimpleOrderDtoSerializer())
+                    .addSerializer(OrderSimpleQueryDto.class, new OrderJsonSerializers.OrderSimpleQueryDtoSerializer()))
+            .build();
+
+    @Test
+    public void same_json_as_default_jackson() throws Exception {
+        Order order = createOrder();
+        assertSameJson(List.of(new OrderApiController.OrderDto(order)));
+        assertSameJson(new OrderSimpleApiController.SimpleOrderDto(order));
+
+        OrderQueryDto queryDto = new OrderQueryDto(1L, "회원\"A\"", LocalDateTime.of(2024, 2, 29, 23, 5, 7, 120_000_000),
+                OrderStatus.CANCEL, new Address("서울", null, "1111"),
+                List.of(new OrderItemQueryDto(1L, "JPA\nBOOK", 10000, 2)));
+        assertSameJson(List.of(queryDto, new OrderQueryDto(null, null, null, null, null)));
+        assertSameJson(new OrderSimpleQueryDto(2L, "회원B", LocalDateTime.of(1999, 1, 1, 0, 0), OrderStatus.ORDER, null));
+    }
+
+    @Test
+    public void date_time_format() throws Exception {
+        int[] nanos = {0, 1, 10, 100_000, 500_000_000, 123_456_789, 120_000_000, 999_999_999};
+        for (int nano : nanos) {
+            LocalDateTime dateTime = LocalDateTime.of(2024, 12, 31, 9, 0, 0, nano);
+            assertSameJson(new OrderSimpleQueryDto(1L, "a", dateTime, OrderStatus.ORDER, null));
+        }
+        assertSameJson(new OrderSimpleQueryDto(1L, "a", LocalDateTime.of(12345, 1, 1, 0, 0), OrderStatus.ORDER, null));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(defaultMapper.writeValueAsString(value), handwrittenMapper.writeValueAsString(value));
+    }
+
+    private Order createOrder() {
+        Member member = new Member();
+        member.setName("회원A");
+        member.setAddress(new Address("서울", "강가", "123"));
+        Book book = new Book();
+        book.setName("JPA BOOK");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        return Order.createOrder(member, delivery,
+                OrderItem.createOrderItem(book, 10000, 2),
+                OrderItem.createOrderItem(book, 9000, 1));
+    }
+}
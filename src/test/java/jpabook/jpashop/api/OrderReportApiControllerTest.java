@@ -0,0 +1,42 @@
+package jpabook.jpashop.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderReportApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void to_date_is_inclusive() throws Exception {
+        // InitDb가 오늘 날짜로 넣은 주문
+        LocalDate today = LocalDate.now();
+
+        assertTrue(report(today, today).contains("userA"));
+        assertFalse(report(today.minusDays(1), today.minusDays(1)).contains("userA"));
+    }
+
+    private String report(LocalDate from, LocalDate to) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/orders")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
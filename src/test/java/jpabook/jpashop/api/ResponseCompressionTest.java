@@ -0,0 +1,39 @@
+package jpabook.jpashop.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 테스트 application.yml에는 server.compression이 없으므로 main과 같은 값을 넣는다.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.compression.enabled=true", "server.compression.min-response-size=2KB"})
+class ResponseCompressionTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Test
+    public void gzip_with_etag() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/v5/orders", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        // 강한 ETag면 Tomcat이 압축하지 않는다. (AggregateVersions 참조)
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        String etag = response.getHeaders().getETag();
+        assertNotNull(etag);
+
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<byte[]> notModified = restTemplate.exchange("/api/v5/orders", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    }
+}
@@ -0,0 +1,75 @@
+package jpabook.jpashop.api.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBinaryFormatTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    public void round_trip() throws Exception {
+        List<OrderQueryDto> orders = List.of(
+                new OrderQueryDto(1L, "회원A", LocalDateTime.of(2024, 2, 29, 23, 5, 7, 123_456_789), OrderStatus.ORDER,
+                        new Address("서울", "강가", "1111"),
+                        List.of(new OrderItemQueryDto(1L, "JPA1 BOOK", 10000, 1), new OrderItemQueryDto(1L, "JPA2 BOOK", -1, 0))),
+                new OrderQueryDto(2L, "회원A", LocalDateTime.of(1960, 1, 1, 0, 0), OrderStatus.CANCEL,
+                        new Address("서울", null, ""), new ArrayList<>()),
+                new OrderQueryDto(null, null, null, null, null));
+
+        List<OrderQueryDto> decoded = new OrderBinaryReader(new ByteArrayInputStream(encode(orders))).readAll();
+
+        // orderId만 비교하는 equals 대신 JSON으로 전체를 비교한다. (OrderItemQueryDto.orderId도 따로 확인)
+        assertEquals(objectMapper.writeValueAsString(orders), objectMapper.writeValueAsString(decoded));
+        assertEquals(1L, decoded.get(0).getOrderItems().get(1).getOrderId());
+    }
+
+    @Test
+    public void smaller_than_json() throws Exception {
+        List<OrderQueryDto> orders = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            orders.add(new OrderQueryDto(i, "member" + (i % 50), LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i * 37),
+                    OrderStatus.ORDER, new Address("서울", "street" + (i % 50), "1111"),
+                    List.of(new OrderItemQueryDto(i, "JPA1 BOOK", 10000, 1), new OrderItemQueryDto(i, "JPA2 BOOK", 20000, 2))));
+        }
+
+        int binary = encode(orders).length;
+        int json = objectMapper.writeValueAsBytes(orders).length;
+
+        assertTrue(binary * 4 < json, "binary: " + binary + ", json: " + json);
+    }
+
+    @Test
+    public void reject_other_stream() {
+        assertThrows(IOException.class,
+                () -> new OrderBinaryReader(new ByteArrayInputStream("[{}]".getBytes())).readAll());
+    }
+
+    private byte[] encode(List<OrderQueryDto> orders) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OrderBinaryWriter writer = new OrderBinaryWriter(out);
+        writer.writeHeader();
+        for (OrderQueryDto order : orders) {
+            writer.write(order);
+        }
+        writer.writeEnd();
+        return out.toByteArray();
+    }
+}
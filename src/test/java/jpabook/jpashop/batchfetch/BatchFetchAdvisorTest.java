@@ -0,0 +1,46 @@
+package jpabook.jpashop.batchfetch;
+
+import jpabook.jpashop.batchfetch.BatchFetchAdvisor.Reason;
+import jpabook.jpashop.batchfetch.BatchFetchAdvisor.Recommendation;
+import jpabook.jpashop.batchfetch.BatchFetchStats.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchFetchAdvisorTest {
+
+    BatchFetchAdvisor advisor = new BatchFetchAdvisor(10, 1000);
+
+    @Test
+    public void keeps_size_until_enough_round_trips() {
+        Recommendation recommendation = advisor.recommend(new Snapshot(100, 9, 900));
+
+        assertEquals(100, recommendation.getBatchSize());
+        assertEquals(Reason.NOT_ENOUGH_SAMPLES, recommendation.getReason());
+    }
+
+    @Test
+    public void doubles_full_batches_up_to_max() {
+        assertRecommendation(new Snapshot(100, 20, 2000), 200, Reason.FULL);
+        assertRecommendation(new Snapshot(800, 20, 16000), 1000, Reason.FULL);
+    }
+
+    @Test
+    public void shrinks_underfilled_batches_with_headroom() {
+        // 평균 12개 -> 18
+        assertRecommendation(new Snapshot(100, 10, 120), 18, Reason.UNDERFILLED);
+        // 매번 1개 -> 최소 2
+        assertRecommendation(new Snapshot(100, 10, 10), 2, Reason.UNDERFILLED);
+    }
+
+    @Test
+    public void keeps_size_that_fits() {
+        assertRecommendation(new Snapshot(100, 10, 700), 100, Reason.FITS);
+    }
+
+    private void assertRecommendation(Snapshot snapshot, int batchSize, Reason reason) {
+        Recommendation recommendation = advisor.recommend(snapshot);
+        assertEquals(batchSize, recommendation.getBatchSize());
+        assertEquals(reason, recommendation.getReason());
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.batchfetch;
+
+import jpabook.jpashop.domain.Order;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 기록(enabled)을 끄고 프로필만 적용하는 운영 설정
+ */
+@SpringBootTest(properties = {
+        "jpashop.batch-fetch.enabled=false",
+        "jpashop.batch-fetch.apply-profile=true"
+})
+class BatchFetchProfileApplyTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    ApplicationContext context;
+
+    @DynamicPropertySource
+    static void profile(DynamicPropertyRegistry registry) throws IOException {
+        Path profile = Files.createTempFile("batch-fetch-profile", ".properties");
+        BatchFetchProfile.save(profile, Map.of(BatchFetchAssociation.ORDER_ITEMS, 123));
+        registry.add("jpashop.batch-fetch.profile", profile::toString);
+    }
+
+    @Test
+    public void applies_profile_without_recorder() {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        AbstractCollectionPersister orderItems = (AbstractCollectionPersister) sessionFactory.getMetamodel()
+                .collectionPersister(Order.class.getName() + ".orderItems");
+        assertEquals(123, orderItems.getBatchSize());
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        for (LoadEventListener listener : registry.getEventListenerGroup(EventType.LOAD).listeners()) {
+            assertFalse(listener instanceof BatchFetchRecorder);
+        }
+        assertTrue(context.getBeansOfType(BatchFetchStats.class).isEmpty());
+    }
+}
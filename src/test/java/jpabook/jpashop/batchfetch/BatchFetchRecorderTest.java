@@ -0,0 +1,80 @@
+package jpabook.jpashop.batchfetch;
+
+import jpabook.jpashop.batchfetch.BatchFetchStats.Snapshot;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "jpashop.batch-fetch.enabled=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=10"
+})
+@Transactional
+class BatchFetchRecorderTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    BatchFetchStats batchFetchStats;
+
+    @Test
+    public void records_one_round_trip_per_batch() {
+        // given: 회원 3명이 같은 책을 한 권씩 주문
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Member member = new Member();
+            member.setName("회원" + i);
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+            orderIds.add(orderService.order(member.getId(), book.getId(), 1));
+        }
+        em.flush();
+        em.clear();
+        batchFetchStats.reset();
+
+        // when: 지연 로딩을 모두 건드린다.
+        List<Order> orders = em.createQuery("select o from Order o where o.id in :ids", Order.class)
+                .setParameter("ids", orderIds)
+                .getResultList();
+        for (Order order : orders) {
+            order.getMember().getName();
+            order.getDelivery().getStatus();
+            for (OrderItem orderItem : order.getOrderItems()) {
+                orderItem.getItem().getName();
+            }
+        }
+
+        // then: 연관관계마다 한 번씩, 배치 크기 10 중에 실린 만큼
+        assertSnapshot(batchFetchStats.get(BatchFetchAssociation.ORDER_MEMBER), 1, 3);
+        assertSnapshot(batchFetchStats.get(BatchFetchAssociation.ORDER_DELIVERY), 1, 3);
+        assertSnapshot(batchFetchStats.get(BatchFetchAssociation.ORDER_ITEMS), 1, 3);
+        assertSnapshot(batchFetchStats.get(BatchFetchAssociation.ORDER_ITEM_ITEM), 1, 1);
+    }
+
+    private void assertSnapshot(Snapshot snapshot, long roundTrips, long loaded) {
+        assertEquals(10, snapshot.getBatchSize());
+        assertEquals(roundTrips, snapshot.getRoundTrips());
+        assertEquals(loaded, snapshot.getLoaded());
+    }
+}
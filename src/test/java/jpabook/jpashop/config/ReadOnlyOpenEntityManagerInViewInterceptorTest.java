@@ -0,0 +1,56 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.repository.OrderRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReadOnlyOpenEntityManagerInViewInterceptorTest {
+
+    @Autowired
+    ReadOnlyOpenEntityManagerInViewInterceptor interceptor;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void get_api_request_loads_entities_read_only() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v3.1/orders"));
+        interceptor.preHandle(request);
+        try {
+            List<Order> orders = orderRepository.findAllWithMemberDelivery(0, 100);
+            Session session = em.unwrap(Session.class);
+
+            assertFalse(orders.isEmpty());
+            for (Order order : orders) {
+                assertTrue(session.isReadOnly(order), "스냅샷 없이 읽기 전용으로 로딩되어야 한다.");
+                // batch fetch로 지연 로딩되는 컬렉션도 읽기 전용이어야 한다.
+                order.getOrderItems().forEach(orderItem -> assertTrue(session.isReadOnly(orderItem)));
+            }
+        } finally {
+            interceptor.afterCompletion(request, null);
+        }
+    }
+
+    @Test
+    public void post_request_keeps_dirty_checking() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/v2/members"));
+        interceptor.preHandle(request);
+        try {
+            assertFalse(em.unwrap(Session.class).isDefaultReadOnly());
+        } finally {
+            interceptor.afterCompletion(request, null);
+        }
+    }
+}
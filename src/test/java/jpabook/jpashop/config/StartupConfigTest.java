@@ -0,0 +1,27 @@
+package jpabook.jpashop.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.main.lazy-initialization=true",
+        "jpashop.init-db.mode=none"
+})
+class StartupConfigTest {
+
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    @Test
+    public void lazy_initialization_keeps_self_starting_beans_eager() {
+        // 아무도 주입받지 않아도 시작할 때 만들어진다.
+        assertTrue(context.getBeanFactory().containsSingleton("orderEventRelay"));
+        assertTrue(context.getBeanFactory().containsSingleton("initDb"));
+        // 나머지는 처음 쓸 때 만든다.
+        assertFalse(context.getBeanFactory().containsSingleton("orderAnalyticsService"));
+    }
+}
@@ -0,0 +1,65 @@
+package jpabook.jpashop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jpabook.jpashop.config.ReadOnlyOpenEntityManagerInViewInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// JPA + OSIV 경로: 한 요청에서 readOnly 트랜잭션 다음에 쓰기 트랜잭션이 오면 쓰기는 primary로 가야 한다.
+// primary와 레플리카가 같은 H2 DB를 가리키게 하고, 어느 풀의 커넥션을 쓰는지로 확인한다.
+@SpringBootTest(properties = {
+        "jpashop.datasource.routing.enabled=true",
+        "jpashop.datasource.routing.primary.url=jdbc:h2:mem:routing_jpa;MODE=LEGACY;DB_CLOSE_DELAY=-1",
+        "jpashop.datasource.routing.primary.username=sa",
+        "jpashop.datasource.routing.primary.driver-class-name=org.h2.Driver",
+        "jpashop.datasource.routing.replicas[0].url=jdbc:h2:mem:routing_jpa;MODE=LEGACY;DB_CLOSE_DELAY=-1",
+        "jpashop.datasource.routing.replicas[0].username=sa",
+        "jpashop.datasource.routing.replicas[0].driver-class-name=org.h2.Driver"
+})
+class RoutingDataSourceJpaTest {
+
+    @Autowired
+    ReadOnlyOpenEntityManagerInViewInterceptor interceptor;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    RoutingPools routingPools;
+
+    @Test
+    public void write_after_readOnly_in_same_request_goes_to_primary() {
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        TransactionTemplate writeTx = new TransactionTemplate(transactionManager);
+
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v3.1/orders"));
+        interceptor.preHandle(request);
+        try {
+            readTx.executeWithoutResult(status -> {
+                em.createNativeQuery("select 1").getSingleResult();
+                assertEquals(1, activeConnections("replica-0"));
+            });
+            writeTx.executeWithoutResult(status -> {
+                em.createNativeQuery("select 1").getSingleResult();
+                assertEquals(0, activeConnections("replica-0"), "쓰기 트랜잭션이 레플리카 커넥션을 물고 있으면 안 된다.");
+            });
+            assertEquals(0, activeConnections("replica-0"), "트랜잭션이 끝나면 커넥션을 반납한다.");
+        } finally {
+            interceptor.afterCompletion(request, null);
+        }
+    }
+
+    private int activeConnections(String replica) {
+        return ((HikariDataSource) routingPools.getReplicas().get(replica)).getHikariPoolMXBean().getActiveConnections();
+    }
+}
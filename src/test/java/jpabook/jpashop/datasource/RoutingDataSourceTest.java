@@ -0,0 +1,88 @@
+package jpabook.jpashop.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 로컬 H2 인스턴스 2개(primary, replica)를 띄워서 라우팅을 확인한다.
+class RoutingDataSourceTest {
+
+    ReplicaHealth health;
+    RoutingMetrics metrics;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary");
+        DataSource replica = h2("routing_replica");
+        new JdbcTemplate(primary).execute("create table if not exists whoami(name varchar(20)); delete from whoami; insert into whoami values ('primary')");
+        new JdbcTemplate(replica).execute("create table if not exists whoami(name varchar(20)); delete from whoami; insert into whoami values ('replica')");
+
+        health = new ReplicaHealth();
+        metrics = new RoutingMetrics();
+        RoutingDataSource routing = new RoutingDataSource(new ReplicaSelector(List.of("replica-0"), health), metrics);
+        routing.setTargetDataSources(Map.of(RoutingDataSource.PRIMARY, primary, "replica-0", replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    public void readOnly_transaction_goes_to_replica() {
+        tx.setReadOnly(true);
+        assertEquals("replica", tx.execute(status -> whoami()));
+        assertEquals(1L, metrics.getRoutedCounts().get("replica-0"));
+    }
+
+    @Test
+    public void write_transaction_goes_to_primary() {
+        tx.setReadOnly(false);
+        assertEquals("primary", tx.execute(status -> whoami()));
+    }
+
+    @Test
+    public void lagging_replica_falls_back_to_primary() {
+        health.update("replica-0", false, 30.0);
+
+        tx.setReadOnly(true);
+        assertEquals("primary", tx.execute(status -> whoami()));
+        assertEquals(1, metrics.getFallbackCount());
+    }
+
+    @Test
+    public void lag_monitor_survives_runtime_exception() {
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:mem:routing_broken") {
+            @Override
+            public Connection getConnection() {
+                throw new IllegalStateException("pool is closed");
+            }
+        };
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-0", broken), health, null, 5);
+
+        monitor.checkAll();
+        assertFalse(health.isAvailable("replica-0"));
+    }
+
+    private String whoami() {
+        return jdbcTemplate.queryForObject("select name from whoami", String.class);
+    }
+
+    private DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "jpashop.load-test.enabled=true",
+        "jpashop.load-test.members=300",
+        "jpashop.load-test.items=120",
+        "jpashop.load-test.orders=1000",
+        "jpashop.load-test.root-categories=3",
+        "jpashop.load-test.child-categories=2",
+        "jpashop.load-test.chunk-size=400"
+})
+class LoadTestDataGeneratorTest {
+
+    @Autowired
+    LoadTestDataGenerator loadTestDataGenerator;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void generate() {
+        long members = count("member");
+        long items = count("item");
+        long orders = count("orders");
+        long lines = count("order_item");
+        long categories = count("category");
+        long closures = count("category_closure");
+
+        LoadTestDataResult result = loadTestDataGenerator.generate();
+
+        assertEquals(300, count("member") - members);
+        assertEquals(120, count("item") - items);
+        assertEquals(1000, count("orders") - orders);
+        assertEquals(result.getOrderLines(), count("order_item") - lines);
+        assertTrue(result.getOrderLines() > 1000, "여러 상품을 담은 주문이 있다.");
+        // 카테고리 3 + 3 * 2, 계층 인덱스는 자기 자신 9 + 부모 6
+        assertEquals(9, count("category") - categories);
+        assertEquals(15, count("category_closure") - closures);
+
+        // 한 주문에 같은 상품은 한 번만
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from (select order_id, item_id from order_item group by order_id, item_id having count(*) > 1)", Long.class));
+        // 엔티티 id와 겹치지 않게 시퀀스를 넘겨 두었다.
+        Long next = jdbcTemplate.queryForObject("select next value for hibernate_sequence", Long.class);
+        Long max = jdbcTemplate.queryForObject("select max(order_item_id) from order_item", Long.class);
+        assertTrue(next > max);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+}
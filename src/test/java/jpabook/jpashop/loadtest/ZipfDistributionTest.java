@@ -0,0 +1,42 @@
+package jpabook.jpashop.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfDistributionTest {
+
+    @Test
+    public void top_ranks_get_most_samples() {
+        ZipfDistribution zipf = new ZipfDistribution(1000, 1.0);
+        Random random = new Random(1);
+        int[] counts = new int[zipf.size()];
+        int samples = 100_000;
+        for (int i = 0; i < samples; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        // 1등은 2등의 약 2배, 상위 10개(1%)가 약 39%
+        assertEquals(2.0, (double) counts[0] / counts[1], 0.2);
+        int top10 = 0;
+        for (int i = 0; i < 10; i++) {
+            top10 += counts[i];
+        }
+        assertEquals(0.39, (double) top10 / samples, 0.02);
+    }
+
+    @Test
+    public void zero_exponent_is_uniform() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 0);
+        Random random = new Random(1);
+        int[] counts = new int[10];
+        for (int i = 0; i < 100_000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        for (int count : counts) {
+            assertEquals(10_000, count, 500);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package jpabook.jpashop.outbox;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderEvent;
+import jpabook.jpashop.domain.OrderEventType;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.OrderEventRepository;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderEventRelayTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    OrderEventRepository orderEventRepository;
+    @Autowired
+    OrderEventRelay orderEventRelay;
+    @Autowired
+    InMemoryOrderEventPublisher publisher;
+
+    @Test
+    public void order_and_cancel_events_are_fed_and_relayed_in_order() {
+        // given
+        Member member = new Member();
+        member.setName("outbox-member");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        Book book = new Book();
+        book.setName("outbox-book");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        while (orderEventRelay.relayOnce() > 0) {
+        }
+        List<OrderEvent> before = orderEventRepository.findAfter(0, Integer.MAX_VALUE);
+        long after = before.isEmpty() ? 0 : before.get(before.size() - 1).getFeedPosition();
+
+        // when
+        Long orderId1 = orderService.order(member.getId(), book.getId(), 1);
+        Long orderId2 = orderService.order(member.getId(), book.getId(), 1);
+        orderService.cancelOrder(orderId1);
+        orderService.cancelOrders(List.of(orderId1, orderId2)); // orderId1은 이미 취소됐으므로 이벤트가 남지 않는다.
+
+        // then
+        // 피드 위치를 매기기 전에는 피드에 나오지 않는다.
+        assertTrue(orderEventRepository.findAfter(after, 100).isEmpty());
+
+        while (orderEventRelay.relayOnce() > 0) {
+        }
+        List<OrderEvent> events = orderEventRepository.findAfter(after, 100);
+        assertEquals(List.of(orderId1, orderId2, orderId1, orderId2),
+                events.stream().map(OrderEvent::getOrderId).collect(Collectors.toList()));
+        assertEquals(List.of(OrderEventType.ORDERED, OrderEventType.ORDERED, OrderEventType.CANCELED, OrderEventType.CANCELED),
+                events.stream().map(OrderEvent::getType).collect(Collectors.toList()));
+
+        // 내보내고 나면 다시 내보내지 않는다.
+        List<Long> eventIds = events.stream().map(OrderEvent::getId).collect(Collectors.toList());
+        assertTrue(publisher.getPublished().stream().map(OrderEvent::getId).collect(Collectors.toList()).containsAll(eventIds));
+        assertTrue(orderEventRepository.findUnpublished(100).stream().noneMatch(e -> eventIds.contains(e.getId())));
+    }
+}
@@ -0,0 +1,108 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.item.Album;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class CategoryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Test
+    public void subtree_items_and_breadcrumb() {
+        // given
+        // 전체 - 도서 - IT
+        //      - 음반
+        Category all = createCategory("전체");
+        Category books = createCategory("도서");
+        Category it = createCategory("IT");
+        Category music = createCategory("음반");
+
+        // 아래쪽부터 연결해도 계층 인덱스는 올바르게 만들어져야 한다.
+        books.addChildCategory(it);
+        all.addChildCategory(books);
+        all.addChildCategory(music);
+
+        Item jpaBook = createItem(new Book(), "JPA", it);
+        Item novel = createItem(new Book(), "소설", books);
+        Item album = createItem(new Album(), "앨범", music);
+
+        em.flush();
+        em.clear();
+
+        // then
+        assertEquals(List.of(jpaBook.getId(), novel.getId(), album.getId()).stream().sorted().collect(Collectors.toList()),
+                ids(categoryRepository.findItemsInSubtree(all.getId())));
+        assertEquals(List.of(jpaBook.getId(), novel.getId()).stream().sorted().collect(Collectors.toList()),
+                ids(categoryRepository.findItemsInSubtree(books.getId())));
+        assertEquals(List.of(jpaBook.getId()), ids(categoryRepository.findItemsInSubtree(it.getId())));
+
+        List<String> breadcrumb = categoryRepository.findBreadcrumb(it.getId()).stream()
+                .map(Category::getName)
+                .collect(Collectors.toList());
+        assertEquals(List.of("전체", "도서", "IT"), breadcrumb);
+    }
+
+    @Test
+    public void moving_category_is_not_supported() {
+        Category all = createCategory("전체");
+        Category books = createCategory("도서");
+        Category it = createCategory("IT");
+        books.addChildCategory(it);
+
+        assertThrows(IllegalStateException.class, () -> all.addChildCategory(it));
+    }
+
+    @Test
+    public void cycle_is_rejected() {
+        Category all = createCategory("전체");
+        Category books = createCategory("도서");
+        Category it = createCategory("IT");
+        all.addChildCategory(books);
+        books.addChildCategory(it);
+
+        assertThrows(IllegalStateException.class, () -> all.addChildCategory(all));
+        // all은 상위 카테고리가 없으므로 부모 검사로는 걸러지지 않는다.
+        assertThrows(IllegalStateException.class, () -> it.addChildCategory(all));
+
+        // 상태는 바뀌지 않는다.
+        assertNull(all.getParent());
+        assertEquals(1, all.getAncestors().size());
+        assertTrue(it.getChild().isEmpty());
+        assertEquals(List.of(books), all.getChild());
+    }
+
+    private Category createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        categoryRepository.save(category);
+        return category;
+    }
+
+    private Item createItem(Item item, String name, Category category) {
+        item.setName(name);
+        em.persist(item);
+        category.getItems().add(item);
+        return item;
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).sorted().collect(Collectors.toList());
+    }
+}
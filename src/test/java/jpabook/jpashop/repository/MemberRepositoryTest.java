@@ -0,0 +1,78 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberRepositoryTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void keyset_paging() {
+        // given
+        Member c = createMember("keyset-c");
+        Member a = createMember("keyset-a");
+        Member b = createMember("keyset-b");
+
+        // when
+        List<MemberListDto> byId = memberRepository.findListAfterId(c.getId(), PageRequest.of(0, 2));
+        List<MemberListDto> byName = memberRepository.findListAfterName("keyset-", PageRequest.of(0, 2));
+        List<MemberListDto> nextByName = memberRepository.findListAfterName("keyset-b", PageRequest.of(0, 1));
+
+        // then
+        assertEquals(List.of(a.getId(), b.getId()), byId.stream().map(MemberListDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of("keyset-a", "keyset-b"), byName.stream().map(MemberListDto::getName).collect(Collectors.toList()));
+        assertEquals("keyset-c", nextByName.get(0).getName());
+        assertEquals("서울", nextByName.get(0).getCity());
+    }
+
+    @Test
+    public void updateName() {
+        // given
+        Member member = createMember("rename-before");
+
+        // when
+        int updated = memberRepository.updateName(member.getId(), "rename-after");
+
+        // then
+        assertEquals(1, updated);
+        assertEquals("rename-after", memberRepository.findById(member.getId()).get().getName()); // 영속성 컨텍스트가 비워져 DB에서 다시 읽는다.
+        assertFalse(memberRepository.existsByNameAndIdNot("rename-after", member.getId()));
+        assertEquals(0, memberRepository.updateName(-1L, "nobody"));
+    }
+
+    @Test
+    public void search_by_name_ignores_case() {
+        // given
+        createMember("Search-Kim");
+        Member lee = createMember("search-lee");
+        memberRepository.updateName(lee.getId(), "SEARCH-LEE");
+
+        // when
+        List<MemberNameView> found = memberRepository.findByNameKeyStartingWithOrderByNameKeyAscNameAsc(
+                Member.nameKey("SEARCH-"), PageRequest.of(0, 10));
+
+        // then
+        assertEquals(List.of("Search-Kim", "SEARCH-LEE"), found.stream().map(MemberNameView::getName).collect(Collectors.toList()));
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        return memberRepository.save(member);
+    }
+}
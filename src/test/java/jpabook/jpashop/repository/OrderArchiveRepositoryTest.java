@@ -0,0 +1,84 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderArchiveRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    OrderArchiveRepository orderArchiveRepository;
+
+    @Test
+    public void date_range_search_and_archive() {
+        // given
+        Member member = new Member();
+        member.setName("archive-member");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        Book book = new Book();
+        book.setName("archive-book");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Order oldCanceled = createOrder(member, book, LocalDateTime.of(2001, 1, 10, 9, 0));
+        oldCanceled.cancel();
+        Order oldOpen = createOrder(member, book, LocalDateTime.of(2001, 1, 11, 23, 59));
+        Order recent = createOrder(member, book, LocalDateTime.of(2001, 3, 1, 0, 0));
+        em.flush();
+
+        // when: 2001-01-10 ~ 2001-01-11 주문
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setFromDate(LocalDate.of(2001, 1, 10));
+        orderSearch.setToDate(LocalDate.of(2001, 1, 11));
+        List<Long> found = orderRepository.findAllByCriteria(orderSearch).stream()
+                .map(Order::getId).collect(Collectors.toList());
+
+        // then: 최근 주문부터
+        assertEquals(List.of(oldOpen.getId(), oldCanceled.getId()), found);
+
+        // when: 2001-02-01 이전의 끝난 주문을 옮긴다.
+        List<Object[]> closed = orderArchiveRepository.findClosedOrders(LocalDateTime.of(2001, 2, 1, 0, 0), 100);
+        int lines = orderArchiveRepository.moveToArchive(closed);
+
+        // then: 취소된 주문만 옮겨진다.
+        assertEquals(1, closed.size());
+        assertEquals(1, lines);
+        assertNull(orderRepository.findOne(oldCanceled.getId()));
+        assertNotNull(orderRepository.findOne(oldOpen.getId()));
+        assertNotNull(orderRepository.findOne(recent.getId()));
+
+        ArchivedOrderLine line = orderArchiveRepository.findLines(oldCanceled.getId()).get(0);
+        assertEquals(OrderStatus.CANCEL, line.getOrderStatus());
+        assertEquals("archive-member", line.getMemberName());
+        assertEquals("archive-book", line.getItemName());
+        assertEquals("서울", line.getCity());
+    }
+
+    private Order createOrder(Member member, Book book, LocalDateTime orderDate) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, book.getPrice(), 1));
+        order.setOrderDate(orderDate);
+        em.persist(order);
+        return order;
+    }
+}
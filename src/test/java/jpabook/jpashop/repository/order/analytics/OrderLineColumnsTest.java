@@ -0,0 +1,81 @@
+package jpabook.jpashop.repository.order.analytics;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns.Filter;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns.GroupBy;
+import jpabook.jpashop.repository.order.analytics.OrderLineColumns.Measure;
+import jpabook.jpashop.support.collection.LongLongMap;
+import jpabook.jpashop.support.collection.LongSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLineColumnsTest {
+
+    @Test
+    public void group_sum_with_filter() {
+        OrderLineColumns.Builder builder = new OrderLineColumns.Builder(2);
+        builder.add(1L, 10L, 100L, 1000, 2, OrderStatus.ORDER, 5);
+        builder.add(2L, 10L, 200L, 500, 1, OrderStatus.ORDER, 5);
+        builder.add(3L, 11L, 100L, 1000, 3, OrderStatus.CANCEL, 6);
+        OrderLineColumns columns = builder.build();
+
+        LongLongMap revenue = columns.groupSum(GroupBy.ITEM, Measure.REVENUE, Filter.all().status(OrderStatus.ORDER));
+        assertEquals(2000L, revenue.get(100L, 0));
+        assertEquals(500L, revenue.get(200L, 0));
+
+        assertEquals(6L, columns.sum(Measure.QUANTITY, Filter.all()));
+        assertEquals(1L, columns.sum(Measure.LINES, Filter.all().days(6, 6)));
+        assertEquals(3000L, columns.sumByStatus(Measure.REVENUE, Filter.all())[OrderStatus.CANCEL.ordinal()]);
+    }
+
+    @Test
+    public void append_and_change_status() {
+        OrderLineColumns.Builder first = new OrderLineColumns.Builder(1);
+        first.add(1L, 10L, 100L, 1000, 2, OrderStatus.ORDER, 5);
+        OrderLineColumns columns = first.build();
+
+        OrderLineColumns.Builder next = new OrderLineColumns.Builder(1);
+        next.add(2L, 11L, 100L, 1000, 1, OrderStatus.ORDER, 6);
+        LongSet canceled = new LongSet();
+        canceled.add(10L);
+        OrderLineColumns appended = columns.append(next).withStatus(canceled, OrderStatus.CANCEL);
+
+        assertEquals(2, appended.size());
+        assertEquals(2L, appended.maxLineId());
+        assertEquals(1000L, appended.sum(Measure.REVENUE, Filter.all().status(OrderStatus.ORDER)));
+        // 이전 스냅샷은 바뀌지 않는다.
+        assertEquals(1, columns.size());
+        assertEquals(2000L, columns.sum(Measure.REVENUE, Filter.all().status(OrderStatus.ORDER)));
+    }
+
+    @Test
+    public void append_across_segments_and_late_lines() {
+        int lines = OrderLineColumns.SEGMENT_SIZE + 10;
+        OrderLineColumns.Builder builder = new OrderLineColumns.Builder(16);
+        for (int i = 1; i <= lines; i++) {
+            builder.add(i + 100L, i, 100L, 10, 1, OrderStatus.ORDER, 5);
+        }
+        OrderLineColumns columns = builder.build();
+        assertEquals(lines, columns.size());
+
+        // 늦게 커밋된 작은 id 줄과 새 줄을 다시 읽었을 때 이미 가진 줄은 뺀다.
+        OrderLineColumns.Builder rescanned = new OrderLineColumns.Builder(3);
+        rescanned.add(50L, 0L, 100L, 10, 1, OrderStatus.ORDER, 5);
+        rescanned.add(lines + 100L, lines, 100L, 10, 1, OrderStatus.ORDER, 5);
+        rescanned.add(lines + 101L, lines + 1, 100L, 10, 1, OrderStatus.ORDER, 5);
+        LongSet existing = new LongSet();
+        existing.add(lines + 100L);
+        OrderLineColumns appended = columns.append(rescanned.exclude(existing));
+
+        assertEquals(lines + 2, appended.size());
+        assertEquals(lines + 101L, appended.maxLineId());
+
+        LongSet canceled = new LongSet();
+        canceled.add(1L);
+        canceled.add(lines + 1L);
+        OrderLineColumns changed = appended.withStatus(canceled, OrderStatus.CANCEL);
+        assertEquals(2L, changed.sum(Measure.LINES, Filter.all().status(OrderStatus.CANCEL)));
+        assertEquals(0L, appended.sum(Measure.LINES, Filter.all().status(OrderStatus.CANCEL)));
+    }
+}
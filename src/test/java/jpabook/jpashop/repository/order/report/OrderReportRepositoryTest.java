@@ -0,0 +1,46 @@
+package jpabook.jpashop.repository.order.report;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderReportRepositoryTest {
+
+    @Autowired
+    OrderReportRepository orderReportRepository;
+
+    @Test
+    public void stream_orders_grouped_with_items() {
+        List<OrderReportDto> orders = new ArrayList<>();
+
+        long count = orderReportRepository.streamOrders(null, null, orders::add);
+
+        // InitDb 데이터: 주문 2건, 주문마다 상품 2개
+        assertEquals(orders.size(), count);
+        assertTrue(count >= 2);
+        for (OrderReportDto order : orders) {
+            assertNotNull(order.getMemberName());
+            assertNotNull(order.getDeliveryAddress());
+            assertFalse(order.getOrderItems().isEmpty());
+        }
+        for (int i = 1; i < orders.size(); i++) {
+            assertTrue(orders.get(i - 1).getOrderId() < orders.get(i).getOrderId(), "주문 id 순서로 넘겨야 한다.");
+        }
+    }
+
+    @Test
+    public void stream_orders_in_date_range() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+
+        long count = orderReportRepository.streamOrders(tomorrow, null, order -> fail("범위 밖의 주문"));
+
+        assertEquals(0, count);
+    }
+}
@@ -0,0 +1,65 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.ItemCatalogDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCatalogSnapshotTest {
+
+    @Test
+    public void patch_updates_adds_and_removes() {
+        ItemCatalogSnapshot snapshot = ItemCatalogSnapshot.of(List.of(
+                item(1L, "JPA1 BOOK", 100),
+                item(3L, "JPA2 BOOK", 100),
+                item(5L, "SPRING1 BOOK", 200)));
+
+        ItemCatalogSnapshot patched = snapshot.patch(
+                List.of(item(3L, "JPA2 BOOK", 98), item(4L, "NEW BOOK", 10)),
+                List.of(3L, 4L, 5L)); // 5번은 다시 읽었는데 없다 --> 삭제
+
+        assertEquals(List.of(1L, 3L, 4L), patched.asList().stream().map(ItemCatalogDto::getId).collect(Collectors.toList()));
+        assertEquals(98, patched.findById(3L).getStockQuantity());
+        assertEquals("NEW BOOK", patched.findById(4L).getName());
+        assertNull(patched.findById(5L));
+
+        // 기존 스냅샷은 그대로다. (copy-on-write)
+        assertEquals(3, snapshot.size());
+        assertEquals(100, snapshot.findById(3L).getStockQuantity());
+    }
+
+    @Test
+    public void searchByNamePrefix_ignores_case_and_limits() {
+        ItemCatalogSnapshot snapshot = ItemCatalogSnapshot.of(List.of(
+                item(1L, "JPA2 BOOK", 100),
+                item(2L, "spring1 book", 100),
+                item(3L, "jpa1 book", 100),
+                item(4L, "JPA3 BOOK", 100)));
+
+        List<ItemCatalogDto> found = snapshot.searchByNamePrefix("Jpa", 2);
+
+        assertEquals(List.of("jpa1 book", "JPA2 BOOK"), found.stream().map(ItemCatalogDto::getName).collect(Collectors.toList()));
+        assertTrue(snapshot.searchByNamePrefix("kotlin", 10).isEmpty());
+    }
+
+    @Test
+    public void stock_only_patch_keeps_name_index() {
+        ItemCatalogSnapshot snapshot = ItemCatalogSnapshot.of(List.of(
+                item(1L, "JPA1 BOOK", 100),
+                item(2L, "JPA2 BOOK", 100)));
+        snapshot.searchByNamePrefix("jpa", 10);
+
+        ItemCatalogSnapshot patched = snapshot.patch(List.of(item(2L, "JPA2 BOOK", 7)), List.of(2L));
+
+        assertEquals(List.of(100, 7), patched.searchByNamePrefix("jpa", 10).stream()
+                .map(ItemCatalogDto::getStockQuantity).collect(Collectors.toList()));
+        assertEquals(100, snapshot.findById(2L).getStockQuantity());
+    }
+
+    private ItemCatalogDto item(Long id, String name, int stockQuantity) {
+        return new ItemCatalogDto(id, name, 10000, stockQuantity, 'B');
+    }
+}
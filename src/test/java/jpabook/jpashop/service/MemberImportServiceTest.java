@@ -0,0 +1,59 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MemberImportServiceTest {
+
+    @Autowired
+    MemberImportService memberImportService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberCountCache memberCountCache;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importMembers() {
+        // given
+        int count = 5000;
+        List<MemberImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(MemberImportRow.of(i + 1, "import-" + i, "서울", "강가", "123-123"));
+        }
+        rows.add(MemberImportRow.of(count + 1, "import-7", null, null, null)); // 앞 묶음과 중복
+        rows.add(MemberImportRow.of(count + 2, "userA", null, null, null)); // DB에 이미 있는 이름
+        rows.add(MemberImportRow.of(count + 3, " ", null, null, null));
+        rows.add(MemberImportRow.invalid(count + 4, "JSON 형식이 잘못되었습니다."));
+
+        // when
+        MemberImportResult result = memberImportService.importMembers(rows.iterator(), 500);
+
+        // then
+        assertEquals(count + 4, result.getTotal());
+        assertEquals(count, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(count + 1L, count + 2L, count + 3L, count + 4L),
+                result.getErrors().stream().map(MemberImportResult.RowError::getLine).sorted().collect(Collectors.toList()));
+        assertTrue(memberRepository.existsByName("import-4999"));
+    }
+
+    // 같은 DB를 쓰는 다른 테스트에 영향이 없도록 커밋된 회원을 지운다.
+    @AfterEach
+    public void deleteImportedMembers() {
+        int deleted = jdbcTemplate.update("delete from member where name like 'import-%'");
+        memberCountCache.add(-deleted);
+    }
+}
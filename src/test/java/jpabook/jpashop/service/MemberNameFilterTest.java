@@ -0,0 +1,44 @@
+package jpabook.jpashop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberNameFilterTest {
+
+    @Test
+    public void bloomFilter_has_no_false_negatives() {
+        MemberNameFilter.BloomFilter filter = new MemberNameFilter.BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+
+        // 넣은 이름은 반드시 있다고 답해야 한다.
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("member" + i));
+        }
+
+        // 넣지 않은 이름의 오탐은 1% 근처여야 한다.
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertFalse(filter.isFull());
+    }
+
+    @Test
+    public void falls_back_to_query_until_built() {
+        // 필터를 만들기 전에는 요청 스레드에서 DB를 읽지 않고 "있을 수도 있다"고 답한다. (existsByName으로 확인)
+        try (MemberNameFilter memberNameFilter = new MemberNameFilter(null, null)) {
+            memberNameFilter.addAll(List.of("member1"));
+            assertFalse(memberNameFilter.isReady());
+            assertTrue(memberNameFilter.mightExist("member1"));
+            assertTrue(memberNameFilter.mightExist("other"));
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DeliveryStatus;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -86,6 +89,78 @@ class OrderServiceTest {
         assertEquals(10, item.getStockQuantity(), "주문 취소된 상품의 재고는 회복되어야 한다.");
     }
 
+    @Test
+    public void bulkOrderCancel() {
+        // given
+        Member member = createMember();
+        Book item1 = createBook("시골 JPA", 10000, 10);
+        Book item2 = createBook("토비의 스프링", 20000, 10);
+
+        Long orderId1 = orderService.order(member.getId(), item1.getId(), 2);
+        Long orderId2 = orderService.order(member.getId(), item1.getId(), 3);
+        Long orderId3 = orderService.order(member.getId(), item2.getId(), 4);
+
+        // when
+        int canceled = orderService.cancelOrders(List.of(orderId1, orderId2, orderId3));
+
+        // then
+        assertEquals(3, canceled);
+        assertEquals(OrderStatus.CANCEL, orderRepository.findOne(orderId1).getStatus(), "주문 취소 시 주문 상태는 CANCEL이다.");
+        assertEquals(OrderStatus.CANCEL, orderRepository.findOne(orderId3).getStatus(), "주문 취소 시 주문 상태는 CANCEL이다.");
+        assertEquals(10, em.find(Book.class, item1.getId()).getStockQuantity(), "상품별로 합산된 수량만큼 재고가 회복되어야 한다.");
+        assertEquals(10, em.find(Book.class, item2.getId()).getStockQuantity(), "주문 취소된 상품의 재고는 회복되어야 한다.");
+
+        // 이미 취소된 주문을 다시 취소해도 재고가 두 번 회복되지 않는다.
+        assertEquals(0, orderService.cancelOrders(List.of(orderId1)));
+        assertEquals(10, em.find(Book.class, item1.getId()).getStockQuantity());
+    }
+
+    @Test
+    public void bulkOrderCancel_completedDelivery() {
+        // given
+        Member member = createMember();
+        Book item = createBook("시골 JPA", 10000, 10);
+
+        Long orderId1 = orderService.order(member.getId(), item.getId(), 2);
+        Long orderId2 = orderService.order(member.getId(), item.getId(), 3);
+        orderRepository.findOne(orderId2).getDelivery().setStatus(DeliveryStatus.COMP);
+
+        // then
+        assertThrows(
+                IllegalStateException.class,
+                () -> orderService.cancelOrders(List.of(orderId1, orderId2)),
+                "배송 완료된 주문이 있으면 취소할 수 없다."
+        );
+        assertEquals(OrderStatus.ORDER, orderRepository.findOne(orderId1).getStatus());
+        assertEquals(5, item.getStockQuantity());
+    }
+
+    @Test
+    public void bulkOrderCancel_bySearch() {
+        // given
+        Member member = createMember();
+        member.setName("벌크취소회원");
+        em.flush();
+        Member other = createMember();
+        Book item = createBook("시골 JPA", 10000, 10);
+
+        Long orderId1 = orderService.order(member.getId(), item.getId(), 2);
+        Long orderId2 = orderService.order(member.getId(), item.getId(), 3);
+        Long otherOrderId = orderService.order(other.getId(), item.getId(), 1);
+        orderService.cancelOrder(orderId1);
+
+        // when
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("벌크취소");
+        int canceled = orderService.cancelOrders(orderSearch);
+
+        // then
+        assertEquals(1, canceled, "이미 취소된 주문은 대상이 아니다.");
+        assertEquals(OrderStatus.CANCEL, orderRepository.findOne(orderId2).getStatus());
+        assertEquals(OrderStatus.ORDER, orderRepository.findOne(otherOrderId).getStatus());
+        assertEquals(9, em.find(Book.class, item.getId()).getStockQuantity());
+    }
+
     private Book createBook(String name, int price, int stockQuantity) {
         Book book = new Book();
         book.setName(name);
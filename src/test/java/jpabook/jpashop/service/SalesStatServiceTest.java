@@ -0,0 +1,99 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.SalesDimension;
+import jpabook.jpashop.domain.SalesStat;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 통계는 커밋 후에 반영되므로 트랜잭션 없이(각 서비스 호출마다 커밋) 테스트한다.
+@SpringBootTest
+class SalesStatServiceTest {
+
+    @Autowired
+    SalesStatService salesStatService;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemCatalogService itemCatalogService;
+    @Autowired
+    MemberCountCache memberCountCache;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long memberId;
+    private Long itemId;
+
+    @Test
+    public void order_and_cancel_update_stats_and_rebuild_matches() {
+        // given
+        Member member = new Member();
+        member.setName("stat-member");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        memberId = memberService.join(member);
+        Book book = new Book();
+        book.setName("stat-book");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        itemService.saveItem(book);
+        itemId = book.getId();
+
+        // when
+        Long orderId1 = orderService.order(memberId, book.getId(), 2);
+        Long orderId2 = orderService.order(memberId, book.getId(), 3);
+        Long orderId3 = orderService.order(memberId, book.getId(), 4);
+        orderService.cancelOrder(orderId1);
+        orderService.cancelOrders(List.of(orderId1, orderId2)); // orderId1은 이미 취소됨
+
+        // then: orderId3만 남는다.
+        assertStat(SalesDimension.ITEM, book.getId(), 1, 4, 4000);
+        assertStat(SalesDimension.MEMBER, memberId, 1, 4, 4000);
+
+        // 다시 집계해도 같다.
+        salesStatService.rebuild();
+        assertStat(SalesDimension.ITEM, book.getId(), 1, 4, 4000);
+        assertStat(SalesDimension.MEMBER, memberId, 1, 4, 4000);
+    }
+
+    // 커밋된 데이터라서 직접 지운다. (다른 테스트와 같은 DB를 쓰고, 다시 실행하면 회원 이름이 중복된다)
+    @AfterEach
+    public void deleteCreatedRows() {
+        if (memberId != null) {
+            List<Long> deliveryIds = jdbcTemplate.queryForList(
+                    "select delivery_id from orders where member_id = ?", Long.class, memberId);
+            jdbcTemplate.update("delete from order_item where order_id in (select order_id from orders where member_id = ?)", memberId);
+            jdbcTemplate.update("delete from order_event where member_id = ?", memberId);
+            jdbcTemplate.update("delete from orders where member_id = ?", memberId);
+            for (Long deliveryId : deliveryIds) {
+                jdbcTemplate.update("delete from delivery where delivery_id = ?", deliveryId);
+            }
+            jdbcTemplate.update("delete from sales_stat where dimension = 'MEMBER' and key_id = ?", memberId);
+            memberCountCache.add(-jdbcTemplate.update("delete from member where member_id = ?", memberId));
+        }
+        if (itemId != null) {
+            jdbcTemplate.update("delete from sales_stat where dimension = 'ITEM' and key_id = ?", itemId);
+            jdbcTemplate.update("delete from item where item_id = ?", itemId);
+            itemCatalogService.rebuild();
+        }
+    }
+
+    private void assertStat(SalesDimension dimension, Long keyId, long orderCount, long quantity, long revenue) {
+        SalesStat stat = salesStatService.findStat(dimension, keyId);
+        assertEquals(orderCount, stat.getOrderCount());
+        assertEquals(quantity, stat.getQuantity());
+        assertEquals(revenue, stat.getRevenue());
+    }
+}
@@ -0,0 +1,110 @@
+package jpabook.jpashop.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    public void concurrent_calls_share_one_execution() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(0, 5_000);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("orders", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            // leader가 실행 중인 동안 나머지 요청이 모두 들어오도록 기다린다.
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 끝난 뒤에는 다시 실행한다. (freshness 0)
+        singleFlight.execute("orders", executions::incrementAndGet);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void reuse_within_freshness_window_and_retry_after_failure() {
+        SingleFlight singleFlight = new SingleFlight(60_000, 5_000);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, singleFlight.execute("a", executions::incrementAndGet));
+        assertEquals(1, singleFlight.execute("a", executions::incrementAndGet));
+        assertEquals(2, singleFlight.execute("b", executions::incrementAndGet));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("c", () -> {
+            throw new IllegalStateException("fail");
+        }));
+        assertEquals(3, singleFlight.execute("c", executions::incrementAndGet));
+    }
+
+    @Test
+    public void results_are_removed_after_freshness_window() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(50, 5_000);
+        for (int version = 0; version < 100; version++) {
+            singleFlight.execute("orders#" + version, () -> "result");
+        }
+        assertEquals(100, singleFlight.size());
+
+        Thread.sleep(500);
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void waiting_is_bounded_by_timeout() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(0, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("orders", () -> {
+                started.countDown();
+                await(release);
+                return "result";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThrows(IllegalStateException.class, () -> singleFlight.execute("orders", () -> "follower"));
+
+            release.countDown();
+            assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
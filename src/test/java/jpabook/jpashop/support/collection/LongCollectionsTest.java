@@ -0,0 +1,77 @@
+package jpabook.jpashop.support.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongCollectionsTest {
+
+    @Test
+    public void long_object_map_put_get_grow() {
+        LongObjectMap<String> map = new LongObjectMap<>(2);
+        for (long key = -1000; key <= 1000; key++) {
+            assertNull(map.put(key, "v" + key));
+        }
+        assertEquals("v0", map.put(0, "zero"));
+
+        assertEquals(2001, map.size());
+        assertEquals("zero", map.get(0));
+        assertEquals("v-1000", map.get(-1000));
+        assertEquals("v1000", map.get(1000));
+        assertNull(map.get(1001));
+        assertEquals("new", map.computeIfAbsent(5000, k -> "new"));
+
+        long[] keySum = new long[1];
+        map.forEach((key, value) -> keySum[0] += key);
+        assertEquals(5000, keySum[0]);
+    }
+
+    @Test
+    public void long_long_map_and_set() {
+        LongLongMap sums = new LongLongMap(1);
+        LongSet set = new LongSet(1);
+        for (long i = 0; i < 10_000; i++) {
+            sums.addTo(i % 100, i);
+            set.add(i * 31);
+        }
+        assertEquals(100, sums.size());
+        assertEquals(LongStream.range(0, 10_000).filter(i -> i % 100 == 7).sum(), sums.get(7, -1));
+        assertEquals(-1, sums.get(100, -1));
+        assertTrue(sums.containsKey(0));
+
+        assertEquals(10_000, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(31 * 9_999));
+        assertFalse(set.contains(32));
+        assertFalse(set.add(31));
+    }
+
+    @Test
+    public void long_long_map_keeps_values_written_while_growing() {
+        LongLongMap sums = new LongLongMap(1);
+        LongLongMap values = new LongLongMap(1);
+        for (long key = 1; key <= 1_000; key++) {
+            sums.addTo(key, key * 10);
+            values.put(key, key * 10);
+        }
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(key * 10, sums.get(key, -1));
+            assertEquals(key * 10, values.get(key, -1));
+        }
+    }
+
+    @Test
+    public void long_list_boxed_view() {
+        LongList list = new LongList(1);
+        for (long i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        assertEquals(100, list.size());
+        assertEquals(99L, list.get(99));
+        assertEquals(List.of(0L, 1L, 2L), list.boxed().subList(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(100));
+    }
+}